@@ -0,0 +1,52 @@
+package com.expenze.benchmark;
+
+import com.expenze.entity.User;
+import com.expenze.security.CustomUserDetails;
+import com.expenze.security.JwtUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private JwtUtils jwtUtils;
+    private CustomUserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secret", "defaultSecretKeyWhichShouldBeLongEnoughForHS256Algorithm");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpiration", 86_400_000L);
+
+        userDetails = new CustomUserDetails(User.builder()
+                .id(42L)
+                .username("bench-user")
+                .password("{noop}secret")
+                .role("user")
+                .build());
+        token = jwtUtils.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtils.validateToken(token, userDetails);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtils.extractUsername(token);
+    }
+}
@@ -0,0 +1,62 @@
+package com.expenze.benchmark;
+
+import com.expenze.dto.CategoryDto;
+import com.expenze.dto.PaymentItemDto;
+import com.expenze.entity.Category;
+import com.expenze.entity.PaymentItem;
+import com.expenze.mapper.CategoryMapper;
+import com.expenze.mapper.PaymentItemMapper;
+import com.expenze.util.MonthKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final PaymentItemMapper paymentItemMapper = new PaymentItemMapper();
+    private final CategoryMapper categoryMapper = new CategoryMapper();
+
+    private PaymentItem item;
+    private PaymentItemDto itemDto;
+    private Category category;
+    private CategoryDto categoryDto;
+
+    @Setup
+    public void setUp() {
+        item = PaymentItem.builder()
+                .id(1L).userId(7L).monthPlanId(11L).month(MonthKey.of(2024, 6)).categoryId(3L)
+                .name("Electricity").plannedAmount(new BigDecimal("1450.00")).actualAmount(new BigDecimal("1390.50"))
+                .isPaid(1).notes("Paid via UPI").priority("HIGH")
+                .build();
+        itemDto = paymentItemMapper.toDto(item);
+        category = Category.builder().id(3L).userId(7L).name("Utilities").sortOrder(2).isActive(1).icon("💡").build();
+        categoryDto = categoryMapper.toDto(category);
+    }
+
+    @Benchmark
+    public PaymentItemDto paymentItemToDto() {
+        return paymentItemMapper.toDto(item);
+    }
+
+    @Benchmark
+    public PaymentItem paymentItemToEntity() {
+        return paymentItemMapper.toEntity(itemDto);
+    }
+
+    @Benchmark
+    public CategoryDto categoryToDto() {
+        return categoryMapper.toDto(category);
+    }
+
+    @Benchmark
+    public Category categoryToEntity() {
+        return categoryMapper.toEntity(categoryDto);
+    }
+}
@@ -0,0 +1,56 @@
+package com.expenze.benchmark;
+
+import com.expenze.dto.MonthPlanDto;
+import com.expenze.dto.PaymentItemDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a month plan response with 500 items, using the same
+ * ObjectMapper defaults Spring Boot applies to the web layer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MonthPlanSerializationBenchmark {
+
+    @Param("500")
+    private int itemCount;
+
+    private ObjectMapper objectMapper;
+    private MonthPlanDto plan;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<PaymentItemDto> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(PaymentItemDto.builder()
+                    .id((long) i).userId(7L).monthPlanId(11L).categoryId((long) (i % 12))
+                    .categoryName("Category " + (i % 12)).name("Item " + i)
+                    .plannedAmount(BigDecimal.valueOf(100_000L + i, 2)).actualAmount(BigDecimal.valueOf(90_000L + i, 2))
+                    .isPaid(i % 2).notes(i % 5 == 0 ? "Note for item " + i : null).priority("MEDIUM")
+                    .build());
+        }
+        plan = MonthPlanDto.builder()
+                .id(11L).userId(7L).monthKey("2024-06").createdAt(LocalDateTime.of(2024, 6, 1, 9, 30))
+                .items(items)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serializeMonthPlan() throws Exception {
+        return objectMapper.writeValueAsBytes(plan);
+    }
+}
@@ -0,0 +1,101 @@
+package com.expenze.benchmark;
+
+import com.expenze.entity.PaymentItem;
+import com.expenze.util.MoneyAccumulator;
+import com.expenze.util.MonthKey;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summary aggregation over 1M payment items: chained BigDecimal additions (the previous
+ * implementation) versus long minor-unit accumulation with {@link MoneyAccumulator}.
+ * Run with {@code -prof gc} to compare allocation rates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SummaryAggregationBenchmark {
+
+    @Param("1000000")
+    private int itemCount;
+
+    private List<PaymentItem> items;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        MonthKey month = MonthKey.of(2024, 6);
+        items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(PaymentItem.builder()
+                    .id((long) i)
+                    .userId(1L)
+                    .monthPlanId(1L)
+                    .month(month)
+                    .categoryId((long) random.nextInt(12))
+                    .name("Item " + i)
+                    .plannedAmount(BigDecimal.valueOf(random.nextInt(500_000), 2))
+                    .actualAmount(BigDecimal.valueOf(random.nextInt(500_000), 2))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public void totalsBigDecimal(Blackhole bh) {
+        BigDecimal totalPlanned = BigDecimal.ZERO;
+        BigDecimal totalActual = BigDecimal.ZERO;
+        for (PaymentItem pi : items) {
+            if (pi.getPlannedAmount() != null)
+                totalPlanned = totalPlanned.add(pi.getPlannedAmount());
+            if (pi.getActualAmount() != null)
+                totalActual = totalActual.add(pi.getActualAmount());
+        }
+        bh.consume(totalPlanned);
+        bh.consume(totalActual);
+    }
+
+    @Benchmark
+    public void totalsMinorUnits(Blackhole bh) {
+        MoneyAccumulator totalPlanned = new MoneyAccumulator();
+        MoneyAccumulator totalActual = new MoneyAccumulator();
+        for (PaymentItem pi : items) {
+            totalPlanned.add(pi.getPlannedAmount());
+            totalActual.add(pi.getActualAmount());
+        }
+        bh.consume(totalPlanned.toBigDecimal());
+        bh.consume(totalActual.toBigDecimal());
+    }
+
+    @Benchmark
+    public Map<Long, BigDecimal> categorySumsBigDecimal() {
+        Map<Long, BigDecimal> sums = new HashMap<>();
+        for (PaymentItem pi : items) {
+            if (pi.getActualAmount() == null || pi.getActualAmount().compareTo(BigDecimal.ZERO) <= 0)
+                continue;
+            sums.merge(pi.getCategoryId(), pi.getActualAmount(), BigDecimal::add);
+        }
+        return sums;
+    }
+
+    @Benchmark
+    public Map<Long, MoneyAccumulator> categorySumsMinorUnits() {
+        Map<Long, MoneyAccumulator> sums = new HashMap<>();
+        for (PaymentItem pi : items) {
+            if (pi.getActualAmount() == null || pi.getActualAmount().signum() <= 0)
+                continue;
+            sums.computeIfAbsent(pi.getCategoryId(), k -> new MoneyAccumulator()).add(pi.getActualAmount());
+        }
+        return sums;
+    }
+}
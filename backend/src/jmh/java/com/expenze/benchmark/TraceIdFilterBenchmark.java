@@ -0,0 +1,50 @@
+package com.expenze.benchmark;
+
+import com.expenze.config.TraceIdFilter;
+import com.expenze.db.SqlBudgetEnforcer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TraceIdFilterBenchmark {
+
+    private final TraceIdFilter filter = new TraceIdFilter(new SqlBudgetEnforcer(new SimpleMeterRegistry()));
+
+    private MockHttpServletRequest request;
+    private MockHttpServletRequest requestWithTraceId;
+    private MockHttpServletRequest requestWithTraceparent;
+
+    @Setup
+    public void setUp() {
+        request = new MockHttpServletRequest("GET", "/api/v1/month/2024-06");
+        requestWithTraceId = new MockHttpServletRequest("GET", "/api/v1/month/2024-06");
+        requestWithTraceId.addHeader("X-Trace-Id", "abcd1234");
+        requestWithTraceparent = new MockHttpServletRequest("GET", "/api/v1/month/2024-06");
+        requestWithTraceparent.addHeader("traceparent", "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+    }
+
+    @Benchmark
+    public void generatedTraceId() throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    @Benchmark
+    public void propagatedTraceId() throws Exception {
+        filter.doFilter(requestWithTraceId, new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    @Benchmark
+    public void propagatedTraceparent() throws Exception {
+        filter.doFilter(requestWithTraceparent, new MockHttpServletResponse(), new MockFilterChain());
+    }
+}
@@ -0,0 +1,80 @@
+package com.expenze.benchmark;
+
+import com.expenze.ExpenzeApplication;
+import com.expenze.dto.CategoryTrendDto;
+import com.expenze.service.AnalyticsService;
+import com.expenze.util.MonthKey;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AnalyticsService#getTrends} over a 5-year range, against the database the PG*
+ * variables point at, seeded by the datagen profile ({@code datagen.years} >= 5). Requests
+ * cycle through the {@code users} datagen users with the most payment items. The
+ * {@code p0.95} sample percentile is the figure recorded next to
+ * {@code expenze.analytics.trends.timeout-ms}.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class TrendsBenchmark {
+
+    @Param("200")
+    private int users;
+
+    @Param("60")
+    private int months;
+
+    private ConfigurableApplicationContext context;
+    private AnalyticsService analyticsService;
+    private long[] userIds;
+    private MonthKey from;
+    private MonthKey to;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ExpenzeApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.mail.username=benchmark@example.com", "--spring.mail.password=unused",
+                        "--expenze.archive.enabled=false", "--logging.level.root=WARN",
+                        "--logging.level.com.expenze=WARN");
+        analyticsService = context.getBean(AnalyticsService.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        // Bulk-loaded data has no statistics until autovacuum gets to it
+        jdbcTemplate.execute("ANALYZE payment_items");
+        jdbcTemplate.execute("ANALYZE month_category_rollups");
+        userIds = jdbcTemplate.queryForList("""
+                SELECT pi.user_id FROM payment_items pi JOIN users u ON u.id = pi.user_id
+                WHERE u.username LIKE 'datagen%'
+                GROUP BY pi.user_id ORDER BY COUNT(*) DESC LIMIT ?""", Long.class, users)
+                .stream().mapToLong(Long::longValue).toArray();
+        if (userIds.length == 0) {
+            throw new IllegalStateException("No datagen users found; seed the database with the datagen profile");
+        }
+
+        to = MonthKey.now();
+        from = to.minusMonths(months - 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CategoryTrendDto> trends() {
+        long userId = userIds[next++ % userIds.length];
+        return analyticsService.getTrends(userId, from, to, List.of());
+    }
+}
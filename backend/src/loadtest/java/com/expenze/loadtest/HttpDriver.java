@@ -0,0 +1,86 @@
+package com.expenze.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends API requests and records their latency against the intended start time.
+ * Failed requests (non-2xx or I/O errors) are recorded too and yield a missing node.
+ */
+class HttpDriver {
+
+    private final HttpClient client;
+    private final URI baseUrl;
+    private final Duration timeout;
+    private final LatencyRecorder recorder;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    HttpDriver(URI baseUrl, Duration timeout, LatencyRecorder recorder) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+        this.recorder = recorder;
+    }
+
+    /**
+     * @param endpoint report label, e.g. {@code GET /month/{key}}
+     * @param intendedStartNanos when the simulated user would have issued the request
+     */
+    CompletableFuture<JsonNode> sendAsync(String endpoint, String method, String path, String token, Object body,
+            long intendedStartNanos) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUrl.resolve(path)).timeout(timeout);
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        if (body != null) {
+            request.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(toJson(body)));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+
+        long sent = System.nanoTime();
+        return client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    long completed = System.nanoTime();
+                    boolean success = error == null && response.statusCode() / 100 == 2;
+                    recorder.record(endpoint, intendedStartNanos, sent, completed, success);
+                    return success ? parse(response.body()) : MissingNode.getInstance();
+                });
+    }
+
+    JsonNode send(String endpoint, String method, String path, String token, Object body, long intendedStartNanos) {
+        return sendAsync(endpoint, method, path, token, body, intendedStartNanos).join();
+    }
+
+    private JsonNode parse(String body) {
+        if (body == null || body.isEmpty())
+            return MissingNode.getInstance();
+        try {
+            return mapper.readTree(body);
+        } catch (JsonProcessingException e) {
+            return MissingNode.getInstance();
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return mapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
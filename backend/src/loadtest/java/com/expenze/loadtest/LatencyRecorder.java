@@ -0,0 +1,117 @@
+package com.expenze.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms, in microseconds.
+ *
+ * Two histograms are kept for every endpoint:
+ * <ul>
+ * <li>response time, measured from the moment the request was <em>supposed</em> to be sent
+ * (session arrival or previous step completion plus think time), and</li>
+ * <li>service time, measured from the moment it was actually sent.</li>
+ * </ul>
+ * When the generator falls behind its schedule the two diverge; reporting only service
+ * time would hide exactly the stalls that matter (coordinated omission), so the report
+ * flags endpoints where they differ by more than the configured threshold.
+ */
+class LatencyRecorder {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final Histogram schedulerLag = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final long recordFromNanos;
+
+    LatencyRecorder(long recordFromNanos) {
+        this.recordFromNanos = recordFromNanos;
+    }
+
+    void record(String endpoint, long intendedStartNanos, long sentNanos, long completedNanos, boolean success) {
+        // Requests scheduled during warmup are discarded, even if they complete later
+        if (intendedStartNanos < recordFromNanos)
+            return;
+
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, k -> new Endpoint());
+        stats.response.recordValue(toMicros(completedNanos - intendedStartNanos));
+        stats.service.recordValue(toMicros(completedNanos - sentNanos));
+        if (!success) {
+            stats.errors.increment();
+        }
+    }
+
+    void recordSchedulerLag(long intendedNanos, long actualNanos) {
+        if (intendedNanos >= recordFromNanos) {
+            schedulerLag.recordValue(toMicros(actualNanos - intendedNanos));
+        }
+    }
+
+    void report(PrintStream out, long coThresholdMicros) {
+        out.printf("%-40s %8s %6s %9s %9s %9s %9s %9s %11s  %s%n", "endpoint", "count", "errors",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99 ms", "");
+
+        boolean anyFlagged = false;
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+            Histogram response = entry.getValue().response;
+            Histogram service = entry.getValue().service;
+            long responseP99 = response.getValueAtPercentile(99);
+            long serviceP99 = service.getValueAtPercentile(99);
+            boolean flagged = responseP99 - serviceP99 > coThresholdMicros;
+            anyFlagged |= flagged;
+
+            out.printf("%-40s %8d %6d %9.2f %9.2f %9.2f %9.2f %9.2f %11.2f  %s%n", entry.getKey(),
+                    response.getTotalCount(), entry.getValue().errors.sum(),
+                    millis(response.getValueAtPercentile(50)), millis(response.getValueAtPercentile(90)),
+                    millis(responseP99), millis(response.getValueAtPercentile(99.9)),
+                    millis(response.getMaxValue()), millis(serviceP99), flagged ? "CO" : "");
+        }
+
+        long lagP99 = schedulerLag.getValueAtPercentile(99);
+        out.printf("%nscheduler lag: p99 %.2f ms, max %.2f ms%n", millis(lagP99), millis(schedulerLag.getMaxValue()));
+        if (lagP99 > coThresholdMicros) {
+            anyFlagged = true;
+            out.println("WARNING: the load generator fell behind its arrival schedule; the offered rate was not "
+                    + "sustained. Run it on a separate machine or lower --rate.");
+        }
+        if (anyFlagged) {
+            out.println("WARNING: coordinated omission detected (CO): response time p99 exceeds service time p99 "
+                    + "by more than the threshold. Judge these endpoints on response time.");
+        }
+    }
+
+    // Full percentile distributions, loadable in the HdrHistogram plotter
+    void writeDistributions(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            String file = entry.getKey().replaceAll("[^A-Za-z0-9]+", "_") + ".hgrm";
+            try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(file)))) {
+                entry.getValue().response.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(Math.max(nanos / 1000, 0), HIGHEST_TRACKABLE_MICROS);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class Endpoint {
+        final Histogram response = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final Histogram service = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,64 @@
+package com.expenze.loadtest;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model HTTP load generator replaying frontend sessions against a running backend.
+ *
+ * Sessions arrive as a Poisson process at {@code --rate} sessions per second, independent
+ * of how fast the backend answers: every session runs on its own virtual thread, so a slow
+ * response never delays the next arrival. Latencies are recorded per endpoint from the
+ * intended start time, and coordinated omission is flagged in the report.
+ * {@code --reporting-storm=N} adds N closed-loop reporting workers alongside the sessions.
+ *
+ * <pre>
+ * mvn -Ploadtest -DskipTests test-compile exec:exec@loadtest -Dloadtest.args="--rate=20 --duration=600"
+ * </pre>
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        long start = System.nanoTime();
+        long recordFrom = start + options.warmup().toNanos();
+        long end = recordFrom + options.duration().toNanos();
+
+        LatencyRecorder recorder = new LatencyRecorder(recordFrom);
+        HttpDriver http = new HttpDriver(options.baseUrl(), options.requestTimeout(), recorder);
+        SplittableRandom random = new SplittableRandom(options.seed());
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / options.sessionsPerSecond();
+
+        System.out.printf("Offering %.1f sessions/s to %s for %ds after %ds warmup%n",
+                options.sessionsPerSecond(), options.baseUrl(), options.duration().toSeconds(),
+                options.warmup().toSeconds());
+
+        long sessions = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < options.reportingStorm(); i++) {
+                executor.execute(new ReportingStorm(http, options, i, end));
+            }
+            long arrival = start;
+            while (arrival < end) {
+                long remaining;
+                while ((remaining = arrival - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(remaining);
+                }
+                recorder.recordSchedulerLag(arrival, System.nanoTime());
+
+                executor.execute(new UserSession(http, options, random.split(), arrival));
+                sessions++;
+                arrival += (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos);
+            }
+            System.out.printf("Arrivals finished after %d sessions, waiting for sessions in flight%n", sessions);
+        }
+
+        recorder.report(System.out, TimeUnit.NANOSECONDS.toMicros(options.coThreshold().toNanos()));
+        recorder.writeDistributions(options.outputDir());
+        System.out.println("Percentile distributions written to " + options.outputDir().toAbsolutePath());
+    }
+}
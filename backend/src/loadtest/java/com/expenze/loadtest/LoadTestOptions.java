@@ -0,0 +1,72 @@
+package com.expenze.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options for {@link LoadTestMain}, given as {@code --name=value}.
+ * Defaults target a local backend seeded by the datagen profile.
+ */
+record LoadTestOptions(
+        URI baseUrl,
+        double sessionsPerSecond,
+        Duration duration,
+        Duration warmup,
+        Duration thinkTime,
+        String userPrefix,
+        int users,
+        String password,
+        double dashboardRatio,
+        double templatesRatio,
+        int editsPerSession,
+        double addItemRatio,
+        int reportingStorm,
+        Duration requestTimeout,
+        Duration coThreshold,
+        long seed,
+        Path outputDir) {
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                URI.create(values.getOrDefault("base-url", "http://localhost:8080")),
+                Double.parseDouble(values.getOrDefault("rate", "5")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "300"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "60"))),
+                Duration.ofMillis(Long.parseLong(values.getOrDefault("think-ms", "1000"))),
+                values.getOrDefault("user-prefix", "datagen42_"),
+                Integer.parseInt(values.getOrDefault("users", "100000")),
+                values.getOrDefault("password", "datagen-password"),
+                Double.parseDouble(values.getOrDefault("dashboard-ratio", "0.7")),
+                Double.parseDouble(values.getOrDefault("templates-ratio", "0.2")),
+                Integer.parseInt(values.getOrDefault("edits", "3")),
+                Double.parseDouble(values.getOrDefault("add-item-ratio", "0.3")),
+                Integer.parseInt(values.getOrDefault("reporting-storm", "0")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("timeout", "30"))),
+                Duration.ofMillis(Long.parseLong(values.getOrDefault("co-threshold-ms", "10"))),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Path.of(values.getOrDefault("output", "target/loadtest")));
+
+        if (options.sessionsPerSecond <= 0) {
+            throw new IllegalArgumentException("--rate must be positive");
+        }
+        if (options.users <= 0) {
+            throw new IllegalArgumentException("--users must be positive");
+        }
+        if (options.reportingStorm < 0 || options.reportingStorm >= options.users) {
+            throw new IllegalArgumentException("--reporting-storm must be between 0 and --users");
+        }
+        return options;
+    }
+}
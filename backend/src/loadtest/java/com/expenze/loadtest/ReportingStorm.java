@@ -0,0 +1,47 @@
+package com.expenze.loadtest;
+
+import com.expenze.util.MonthKey;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Closed-loop reporting load running beside the sessions: each worker logs in as its own
+ * user and requests the 6-month summary and category breakdown back to back, with no
+ * think time, until the run ends. Its latencies are reported under a {@code storm} prefix
+ * so the interactive endpoints' percentiles stay separate.
+ */
+class ReportingStorm implements Runnable {
+
+    private final HttpDriver http;
+    private final LoadTestOptions options;
+    private final int worker;
+    private final long endNanos;
+
+    ReportingStorm(HttpDriver http, LoadTestOptions options, int worker, long endNanos) {
+        this.http = http;
+        this.options = options;
+        this.worker = worker;
+        this.endNanos = endNanos;
+    }
+
+    @Override
+    public void run() {
+        // Highest user numbers, so storm users rarely collide with session users
+        String username = options.userPrefix() + (options.users() - 1 - worker);
+        JsonNode login = http.send("storm POST /login", "POST", "/api/v1/login", null,
+                Map.of("username", username, "password", options.password()), System.nanoTime());
+        String token = login.path("token").asText(null);
+        if (token == null)
+            return;
+
+        SplittableRandom random = new SplittableRandom(options.seed() + worker);
+        while (System.nanoTime() < endNanos) {
+            http.send("storm GET /summary/last6", "GET", "/api/v1/summary/last6", token, null, System.nanoTime());
+            MonthKey month = MonthKey.now().minusMonths(random.nextInt(24));
+            http.send("storm GET /category-expenses/{key}", "GET", "/api/v1/category-expenses/" + month, token,
+                    null, System.nanoTime());
+        }
+    }
+}
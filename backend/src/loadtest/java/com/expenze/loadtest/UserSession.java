@@ -0,0 +1,185 @@
+package com.expenze.loadtest;
+
+import com.expenze.util.MonthKey;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One simulated user visit, replaying the calls the frontend pages make:
+ * <ol>
+ * <li>Login</li>
+ * <li>MonthPlan page: month plan, categories, profile and category templates in parallel</li>
+ * <li>Item edits (paid toggles / actual amounts), optionally adding an item, which reloads the page,
+ * and deleting it again</li>
+ * <li>Dashboard (optional): month plan, profile, last-6 summary, category expenses and regular
+ * payments in parallel</li>
+ * <li>Templates page (optional): list, create and delete a regular payment</li>
+ * </ol>
+ * Each step starts one think time after the previous one completed; that instant is the
+ * step's intended start for latency measurement.
+ */
+class UserSession implements Runnable {
+
+    private final HttpDriver http;
+    private final LoadTestOptions options;
+    private final SplittableRandom random;
+    private final long arrivalNanos;
+
+    private String token;
+
+    UserSession(HttpDriver http, LoadTestOptions options, SplittableRandom random, long arrivalNanos) {
+        this.http = http;
+        this.options = options;
+        this.random = random;
+        this.arrivalNanos = arrivalNanos;
+    }
+
+    @Override
+    public void run() {
+        String username = options.userPrefix() + random.nextInt(options.users());
+        JsonNode login = http.send("POST /login", "POST", "/api/v1/login", null,
+                Map.of("username", username, "password", options.password()), arrivalNanos);
+        token = login.path("token").asText(null);
+        if (token == null)
+            return;
+
+        MonthKey month = MonthKey.now();
+        if (random.nextInt(5) == 0) {
+            month = month.minusMonths(1 + random.nextInt(11));
+        }
+
+        List<JsonNode> page = loadMonthPlanPage(month, thinkThenWait());
+        JsonNode items = page.get(0).path("items");
+        JsonNode categories = page.get(1);
+
+        for (int i = 0; i < options.editsPerSession() && items.size() > 0; i++) {
+            JsonNode item = items.get(random.nextInt(items.size()));
+            http.send("PUT /items/{id}", "PUT", "/api/v1/items/" + item.path("id").asLong(), token,
+                    edited(item), thinkThenWait());
+        }
+
+        if (random.nextDouble() < options.addItemRatio() && categories.size() > 0) {
+            addAndDeleteItem(month, categories);
+        }
+
+        if (random.nextDouble() < options.dashboardRatio()) {
+            loadDashboard(MonthKey.now(), thinkThenWait());
+        }
+
+        if (random.nextDouble() < options.templatesRatio() && categories.size() > 0) {
+            manageRegularPayments(categories);
+        }
+    }
+
+    private List<JsonNode> loadMonthPlanPage(MonthKey month, long intendedStart) {
+        return parallel(intendedStart,
+                "GET /month/{key}", "/api/v1/month/" + month,
+                "GET /categories", "/api/v1/categories",
+                "GET /profile", "/api/v1/profile",
+                "GET /category-templates", "/api/v1/category-templates");
+    }
+
+    // Dashboard.jsx also requests /api/v1/templates, which the backend does not serve;
+    // the regular payments list is what that call was meant to load
+    private void loadDashboard(MonthKey month, long intendedStart) {
+        parallel(intendedStart,
+                "GET /month/{key}", "/api/v1/month/" + month,
+                "GET /profile", "/api/v1/profile",
+                "GET /summary/last6", "/api/v1/summary/last6",
+                "GET /category-expenses/{key}", "/api/v1/category-expenses/" + month,
+                "GET /regular", "/api/v1/regular");
+    }
+
+    private void addAndDeleteItem(MonthKey month, JsonNode categories) {
+        JsonNode category = categories.get(random.nextInt(categories.size()));
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("categoryId", category.path("id").asLong());
+        item.put("name", "Load test item");
+        item.put("plannedAmount", amount());
+        item.put("actualAmount", 0);
+        item.put("priority", "MEDIUM");
+        item.put("notes", "");
+        item.put("monthKey", month.toString());
+
+        JsonNode created = http.send("POST /items", "POST", "/api/v1/items", token, item, thinkThenWait());
+        loadMonthPlanPage(month, System.nanoTime());
+        if (created.has("id")) {
+            http.send("DELETE /items/{id}", "DELETE", "/api/v1/items/" + created.path("id").asLong(), token, null,
+                    thinkThenWait());
+        }
+    }
+
+    private void manageRegularPayments(JsonNode categories) {
+        parallel(thinkThenWait(),
+                "GET /regular", "/api/v1/regular",
+                "GET /categories", "/api/v1/categories");
+
+        // Starts far in the future so replayed sessions never change the month plans they read
+        LocalDate start = LocalDate.now().plusYears(50).withDayOfMonth(1);
+        Map<String, Object> regular = new LinkedHashMap<>();
+        regular.put("name", "Load test subscription");
+        regular.put("categoryId", categories.get(random.nextInt(categories.size())).path("id").asLong());
+        regular.put("defaultPlannedAmount", amount());
+        regular.put("notes", "");
+        regular.put("startDate", start.toString());
+        regular.put("frequency", "MONTHLY");
+        regular.put("isActive", 1);
+
+        JsonNode created = http.send("POST /regular", "POST", "/api/v1/regular", token, regular, thinkThenWait());
+        http.send("GET /regular", "GET", "/api/v1/regular", token, null, System.nanoTime());
+        if (created.has("id")) {
+            http.send("DELETE /regular/{id}", "DELETE", "/api/v1/regular/" + created.path("id").asLong(), token,
+                    null, thinkThenWait());
+            http.send("GET /regular", "GET", "/api/v1/regular", token, null, System.nanoTime());
+        }
+    }
+
+    // Alternating (label, path) pairs, all GETs issued at once like the pages' Promise.all
+    private List<JsonNode> parallel(long intendedStart, String... labelsAndPaths) {
+        List<CompletableFuture<JsonNode>> futures = new ArrayList<>();
+        for (int i = 0; i < labelsAndPaths.length; i += 2) {
+            futures.add(http.sendAsync(labelsAndPaths[i], "GET", labelsAndPaths[i + 1], token, null,
+                    intendedStart));
+        }
+        List<JsonNode> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<JsonNode> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    private ObjectNode edited(JsonNode item) {
+        ObjectNode copy = item.deepCopy();
+        boolean paid = item.path("isPaid").asInt() == 0;
+        copy.put("isPaid", paid ? 1 : 0);
+        copy.set("actualAmount", paid ? item.path("plannedAmount") : copy.numberNode(0));
+        return copy;
+    }
+
+    private double amount() {
+        return Math.round(random.nextDouble(50, 5000) * 100) / 100.0;
+    }
+
+    /**
+     * Picks an exponentially distributed think time after now, parks until then and
+     * returns that instant as the next step's intended start.
+     */
+    private long thinkThenWait() {
+        long meanNanos = options.thinkTime().toNanos();
+        long intended = System.nanoTime() + (long) (-Math.log(1 - random.nextDouble()) * meanNanos);
+        long remaining;
+        while ((remaining = intended - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+        return intended;
+    }
+}
@@ -0,0 +1,61 @@
+package com.expenze.archive;
+
+import com.expenze.entity.PaymentItem;
+import com.expenze.util.MoneyAccumulator;
+import com.expenze.util.MonthKey;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-category totals of archived months (month_category_rollups), so analytics over long
+ * ranges read a few rows per archived month instead of decoding its segment.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MonthRollupStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Replaces the rollups of a month with the totals of {@code items}; joins the caller's transaction. */
+    public void write(long userId, MonthKey month, List<PaymentItem> items) {
+        Map<Long, Totals> byCategory = new LinkedHashMap<>();
+        for (PaymentItem item : items) {
+            Totals totals = byCategory.computeIfAbsent(item.getCategoryId(), k -> new Totals());
+            totals.planned.add(item.getPlannedAmount());
+            totals.actual.add(item.getActualAmount());
+            totals.count++;
+        }
+        if (byCategory.isEmpty()) {
+            // Marks the month as rolled up even though it has nothing to sum
+            byCategory.put(null, new Totals());
+        }
+
+        List<Object[]> rows = new ArrayList<>(byCategory.size());
+        byCategory.forEach((categoryId, totals) -> rows.add(new Object[] { userId, month.value(), categoryId,
+                totals.planned.toBigDecimal(), totals.actual.toBigDecimal(), totals.count }));
+        delete(userId, month);
+        jdbcTemplate.batchUpdate("INSERT INTO month_category_rollups "
+                + "(user_id, month_num, category_id, planned_amount, actual_amount, item_count) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", rows);
+        log.debug("Wrote {} rollup rows for user {} month {}", rows.size(), userId, month);
+    }
+
+    public void delete(long userId, MonthKey month) {
+        jdbcTemplate.update("DELETE FROM month_category_rollups WHERE user_id = ? AND month_num = ?",
+                userId, month.value());
+    }
+
+    private static final class Totals {
+        final MoneyAccumulator planned = new MoneyAccumulator();
+        final MoneyAccumulator actual = new MoneyAccumulator();
+        int count;
+    }
+}
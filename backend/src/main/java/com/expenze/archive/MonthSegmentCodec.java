@@ -0,0 +1,213 @@
+package com.expenze.archive;
+
+import com.expenze.entity.PaymentItem;
+import com.expenze.exception.ArchiveCorruptedException;
+import com.expenze.util.MonthKey;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary format of a month archive segment: the payment items of one (user, month).
+ *
+ * <pre>
+ * header  : magic(int) version(short) userId(long) month(int) itemCount(int)
+ *           rawLength(int) compressedLength(int) crc32c(int)
+ * payload : deflate(items), checksummed with CRC32C
+ * </pre>
+ *
+ * Version 2 appends each item's import hash; version 1 segments are still read, without it.
+ */
+public final class MonthSegmentCodec {
+
+    static final int MAGIC = 0x45585347; // "EXSG"
+    static final short VERSION = 2;
+    static final int HEADER_BYTES = 4 + 2 + 8 + 4 + 4 + 4 + 4 + 4;
+
+    private MonthSegmentCodec() {
+    }
+
+    public static byte[] encode(long userId, MonthKey month, List<PaymentItem> items) {
+        byte[] raw = serializeItems(items);
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        byte[] compressed;
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 2));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(chunk);
+                out.write(chunk, 0, n);
+            }
+            compressed = out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(compressed);
+
+        ByteBuffer segment = ByteBuffer.allocate(HEADER_BYTES + compressed.length);
+        segment.putInt(MAGIC)
+                .putShort(VERSION)
+                .putLong(userId)
+                .putInt(month.value())
+                .putInt(items.size())
+                .putInt(raw.length)
+                .putInt(compressed.length)
+                .putInt((int) crc.getValue())
+                .put(compressed);
+        return segment.array();
+    }
+
+    /**
+     * Decodes a segment, verifying magic, version and checksum. Works directly on a
+     * memory-mapped buffer; only the compressed payload is copied into the inflater.
+     */
+    public static List<PaymentItem> decode(ByteBuffer segment) {
+        if (segment.remaining() < HEADER_BYTES || segment.getInt() != MAGIC) {
+            throw new ArchiveCorruptedException("Not an archive segment");
+        }
+        short version = segment.getShort();
+        if (version < 1 || version > VERSION) {
+            throw new ArchiveCorruptedException("Unsupported segment version " + version);
+        }
+        long userId = segment.getLong();
+        MonthKey month = new MonthKey(segment.getInt());
+        int itemCount = segment.getInt();
+        int rawLength = segment.getInt();
+        int compressedLength = segment.getInt();
+        int expectedCrc = segment.getInt();
+        if (segment.remaining() < compressedLength) {
+            throw new ArchiveCorruptedException("Truncated segment for user " + userId + " month " + month);
+        }
+
+        ByteBuffer payload = segment.slice(segment.position(), compressedLength);
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != expectedCrc) {
+            throw new ArchiveCorruptedException("Checksum mismatch for user " + userId + " month " + month);
+        }
+
+        ByteBuffer raw = ByteBuffer.allocate(rawLength);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(payload);
+            while (!inflater.finished() && raw.hasRemaining()) {
+                if (inflater.inflate(raw) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new ArchiveCorruptedException("Corrupt payload for user " + userId + " month " + month);
+        } finally {
+            inflater.end();
+        }
+        if (raw.hasRemaining()) {
+            throw new ArchiveCorruptedException("Short payload for user " + userId + " month " + month);
+        }
+        raw.flip();
+        return deserializeItems(raw, version, itemCount, userId, month);
+    }
+
+    private static byte[] serializeItems(List<PaymentItem> items) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(items.size() * 64 + 16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (PaymentItem item : items) {
+                out.writeLong(item.getId() != null ? item.getId() : -1L);
+                out.writeLong(item.getMonthPlanId() != null ? item.getMonthPlanId() : -1L);
+                out.writeLong(item.getCategoryId() != null ? item.getCategoryId() : -1L);
+                writeString(out, item.getName());
+                writeDecimal(out, item.getPlannedAmount());
+                writeDecimal(out, item.getActualAmount());
+                out.writeInt(item.getIsPaid() != null ? item.getIsPaid() : 0);
+                writeString(out, item.getNotes());
+                writeString(out, item.getPriority());
+                writeString(out, item.getImportHash());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<PaymentItem> deserializeItems(ByteBuffer in, short version, int itemCount, long userId,
+            MonthKey month) {
+        List<PaymentItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            long id = in.getLong();
+            long monthPlanId = in.getLong();
+            long categoryId = in.getLong();
+            items.add(PaymentItem.builder()
+                    .id(id >= 0 ? id : null)
+                    .userId(userId)
+                    .monthPlanId(monthPlanId >= 0 ? monthPlanId : null)
+                    .month(month)
+                    .categoryId(categoryId >= 0 ? categoryId : null)
+                    .name(readString(in))
+                    .plannedAmount(readDecimal(in))
+                    .actualAmount(readDecimal(in))
+                    .isPaid(in.getInt())
+                    .notes(readString(in))
+                    .priority(readString(in))
+                    .importHash(version >= 2 ? readString(in) : null)
+                    .build());
+        }
+        return items;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeByte(-1);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeByte(unscaled.length);
+        out.write(unscaled);
+        out.writeByte(value.scale());
+    }
+
+    private static BigDecimal readDecimal(ByteBuffer in) {
+        int length = in.get();
+        if (length < 0) {
+            return null;
+        }
+        byte[] unscaled = new byte[length];
+        in.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), in.get());
+    }
+}
@@ -0,0 +1,108 @@
+package com.expenze.archive;
+
+import com.expenze.entity.PaymentItem;
+import com.expenze.util.MonthKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local-disk store of month archive segments, one file per (user, month):
+ * {@code <dir>/<userId>/<yyyymm>.seg}.
+ * <p>
+ * Segments are written with a {@link FileChannel} to a temp file, forced and atomically
+ * moved into place. Reads memory-map the file and keep the decoded items in a small LRU
+ * so repeated views of the same old month skip the inflate step.
+ */
+@Slf4j
+@Component
+public class MonthSegmentStore {
+
+    private final Path baseDir;
+    private final Map<SegmentKey, List<PaymentItem>> decoded;
+
+    public MonthSegmentStore(@Value("${expenze.archive.dir:./archive}") String dir,
+            @Value("${expenze.archive.cache-size:64}") int cacheSize) {
+        this.baseDir = Paths.get(dir).toAbsolutePath();
+        this.decoded = Collections.synchronizedMap(new LinkedHashMap<>(cacheSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SegmentKey, List<PaymentItem>> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    public void write(long userId, MonthKey month, List<PaymentItem> items) {
+        Path target = pathFor(userId, month);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        ByteBuffer segment = ByteBuffer.wrap(MonthSegmentCodec.encode(userId, month, items));
+        try {
+            Files.createDirectories(target.getParent());
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (segment.hasRemaining()) {
+                    channel.write(segment);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write archive segment " + target, e);
+        }
+        decoded.remove(new SegmentKey(userId, month.value()));
+        log.debug("Wrote archive segment {} ({} items)", target, items.size());
+    }
+
+    /**
+     * Returns the archived items of a month. The returned list is shared with the cache
+     * and must not be modified.
+     */
+    public List<PaymentItem> read(long userId, MonthKey month) {
+        SegmentKey key = new SegmentKey(userId, month.value());
+        List<PaymentItem> items = decoded.get(key);
+        if (items != null) {
+            return items;
+        }
+
+        Path path = pathFor(userId, month);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            items = Collections.unmodifiableList(MonthSegmentCodec.decode(mapped));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archive segment " + path, e);
+        }
+        decoded.put(key, items);
+        return items;
+    }
+
+    public void delete(long userId, MonthKey month) {
+        decoded.remove(new SegmentKey(userId, month.value()));
+        try {
+            Files.deleteIfExists(pathFor(userId, month));
+        } catch (IOException e) {
+            log.warn("Could not delete archive segment for user {} month {}: {}", userId, month, e.getMessage());
+        }
+    }
+
+    private Path pathFor(long userId, MonthKey month) {
+        return baseDir.resolve(Long.toString(userId)).resolve(month.value() + ".seg");
+    }
+
+    private record SegmentKey(long userId, int month) {
+    }
+}
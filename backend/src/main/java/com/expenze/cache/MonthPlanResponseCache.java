@@ -0,0 +1,188 @@
+package com.expenze.cache;
+
+import com.expenze.util.MonthKey;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Serialized {@code GET /month/{key}} responses per (user, month), held as JSON bytes so a
+ * hit is written to the response without touching Jackson.
+ *
+ * Bounded by total bytes, evicting least recently used entries. Writes invalidate after
+ * their transaction commits, either one month or all months of a user, and advance the
+ * user's {@link UserDataVersions} generation. A read only stores its result if the
+ * generation did not move while it loaded, so a read racing with a write can never leave
+ * the pre-write response behind. Entries are local to this instance.
+ */
+@Slf4j
+@Component
+public class MonthPlanResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long maxBytes;
+    private final UserDataVersions versions;
+    private final Counter hits;
+    private final Counter misses;
+
+    // Guarded by this
+    private final LinkedHashMap<Key, byte[]> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<Long, Set<MonthKey>> monthsByUser = new HashMap<>();
+    private long bytes;
+
+    public MonthPlanResponseCache(ObjectMapper objectMapper, MeterRegistry meterRegistry, UserDataVersions versions,
+            @Value("${expenze.cache.month-plan.enabled:true}") boolean enabled,
+            @Value("${expenze.cache.month-plan.max-bytes:67108864}") long maxBytes) {
+        this.objectMapper = objectMapper;
+        this.versions = versions;
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.hits = Counter.builder("expenze.cache.month.plan.requests").tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("expenze.cache.month.plan.requests").tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("expenze.cache.month.plan.bytes", this, MonthPlanResponseCache::getBytes)
+                .baseUnit("bytes")
+                .description("Serialized month plan responses held in memory")
+                .register(meterRegistry);
+        Gauge.builder("expenze.cache.month.plan.entries", this, MonthPlanResponseCache::getEntryCount)
+                .register(meterRegistry);
+        Gauge.builder("expenze.cache.month.plan.hit.ratio", this, MonthPlanResponseCache::getHitRatio)
+                .description("Hits over all lookups since startup")
+                .register(meterRegistry);
+    }
+
+    /** Returns the cached JSON for (user, month), or loads, serializes and stores it. */
+    public byte[] getOrLoad(Long userId, MonthKey month, Supplier<?> loader) {
+        if (!enabled) {
+            return serialize(loader.get());
+        }
+        Key key = new Key(userId, month);
+        byte[] json;
+        synchronized (this) {
+            json = entries.get(key);
+        }
+        if (json != null) {
+            hits.increment();
+            return json;
+        }
+
+        misses.increment();
+        long version = versions.current(userId);
+        json = serialize(loader.get());
+        store(key, version, json);
+        return json;
+    }
+
+    /** Drops one month of a user once the current transaction commits. */
+    public void invalidate(Long userId, MonthKey month) {
+        afterCommit(() -> {
+            versions.advance(userId);
+            synchronized (this) {
+                remove(new Key(userId, month));
+            }
+        });
+    }
+
+    /** Drops every month of a user once the current transaction commits. */
+    public void invalidateUser(Long userId) {
+        afterCommit(() -> {
+            versions.advance(userId);
+            synchronized (this) {
+                Set<MonthKey> months = monthsByUser.get(userId);
+                if (months != null) {
+                    for (MonthKey month : new HashSet<>(months)) {
+                        remove(new Key(userId, month));
+                    }
+                }
+            }
+        });
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public double getHitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private synchronized void store(Key key, long version, byte[] json) {
+        // An invalidation since the load started means the result may predate that write
+        if (json.length > maxBytes || versions.current(key.userId()) != version) {
+            return;
+        }
+        remove(key);
+        entries.put(key, json);
+        monthsByUser.computeIfAbsent(key.userId(), k -> new HashSet<>()).add(key.month());
+        bytes += json.length;
+
+        Iterator<Map.Entry<Key, byte[]>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Key, byte[]> entry = eldest.next();
+            eldest.remove();
+            bytes -= entry.getValue().length;
+            forgetMonth(entry.getKey());
+        }
+    }
+
+    private void remove(Key key) {
+        byte[] previous = entries.remove(key);
+        if (previous != null) {
+            bytes -= previous.length;
+            forgetMonth(key);
+        }
+    }
+
+    private void forgetMonth(Key key) {
+        Set<MonthKey> months = monthsByUser.get(key.userId());
+        if (months != null && months.remove(key.month()) && months.isEmpty()) {
+            monthsByUser.remove(key.userId());
+        }
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize month plan", e);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Key(Long userId, MonthKey month) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.expenze.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-user generations of cached or shared read results, advanced after each committed
+ * invalidating write. A result computed under an older generation may predate that write.
+ * Each {@link Scope} has its own generation, so a cache only misses on writes to the data it
+ * holds. Striped by user id, so memory stays fixed; a collision only causes a spurious miss.
+ */
+@Component
+public class UserDataVersions {
+
+    /** What a write changed, and so which tagged results it invalidates. */
+    public enum Scope {
+        // Payment items, categories and templates: month responses, the ledger cube, coalesced reads
+        LEDGER,
+        // Regular payments: schedule indexes
+        REGULAR_PAYMENTS,
+        SALARIES
+    }
+
+    private static final int STRIPES = 16384;
+
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES * Scope.values().length);
+
+    /** The user's {@link Scope#LEDGER} generation. */
+    public long current(Long userId) {
+        return current(Scope.LEDGER, userId);
+    }
+
+    public long current(Scope scope, Long userId) {
+        return versions.get(index(scope, userId));
+    }
+
+    /**
+     * Advances the user's {@link Scope#LEDGER} generation once the current transaction
+     * commits, or now without one. For ledger writes that no month response depends on.
+     */
+    public void invalidateAfterCommit(Long userId) {
+        invalidateAfterCommit(Scope.LEDGER, userId);
+    }
+
+    /** Advances one of the user's generations once the current transaction commits, or now. */
+    public void invalidateAfterCommit(Scope scope, Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    advance(scope, userId);
+                }
+            });
+        } else {
+            advance(scope, userId);
+        }
+    }
+
+    void advance(Long userId) {
+        advance(Scope.LEDGER, userId);
+    }
+
+    private void advance(Scope scope, Long userId) {
+        versions.incrementAndGet(index(scope, userId));
+    }
+
+    private static int index(Scope scope, Long userId) {
+        return scope.ordinal() * STRIPES + Math.floorMod(Long.hashCode(userId), STRIPES);
+    }
+}
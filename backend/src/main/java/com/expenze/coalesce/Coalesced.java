@@ -0,0 +1,21 @@
+package com.expenze.coalesce;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Concurrent calls of the annotated method with equal arguments share one execution: the
+ * first caller runs it, callers arriving while it is in flight wait for and return the same
+ * result (or exception). Nothing is kept once it completes; this is not a cache.
+ *
+ * Only for reads whose result is not modified by callers, since they share the instance.
+ * The first argument should be the user id so calls never coalesce across users.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Coalesced {
+}
@@ -0,0 +1,92 @@
+package com.expenze.coalesce;
+
+import com.expenze.cache.UserDataVersions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-flight execution of {@link Coalesced} methods, keyed by method and arguments.
+ *
+ * In-flight calls live in a ConcurrentHashMap, whose per-bin locking stripes registration
+ * by key, so unrelated keys never contend. Runs outside the transaction interceptor: the
+ * result handed to waiting callers is the committed one, and they never open a transaction
+ * of their own.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class CoalescingAspect {
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<Method, Counter[]> counters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final UserDataVersions userDataVersions;
+
+    @Around("@annotation(com.expenze.coalesce.Coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Object[] args = joinPoint.getArgs();
+        // A call started before the user's last committed write never serves callers arriving after it
+        long generation = args.length > 0 && args[0] instanceof Long userId ? userDataVersions.current(userId) : 0;
+        Key key = new Key(method, Arrays.asList(args), generation);
+        Counter[] outcome = counters.computeIfAbsent(method, this::newCounters);
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            outcome[1].increment();
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause();
+            }
+        }
+
+        outcome[0].increment();
+        try {
+            Object result = joinPoint.proceed();
+            inFlight.remove(key, mine);
+            mine.complete(result);
+            return result;
+        } catch (Throwable t) {
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(t);
+            throw t;
+        }
+    }
+
+    private Counter[] newCounters(Method method) {
+        String name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        return new Counter[] {
+                counter(name, "executed"),
+                counter(name, "joined") };
+    }
+
+    private Counter counter(String method, String outcome) {
+        return Counter.builder("expenze.coalesced.calls")
+                .description("Calls of @Coalesced methods: executed, or joined an identical call in flight")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Key(Method method, List<Object> args, long generation) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.expenze.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Enables {@code @Async} methods (e.g. email delivery). They run on Spring Boot's
+ * application task executor, which applies {@link MdcTaskDecorator}.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -0,0 +1,42 @@
+package com.expenze.config;
+
+import com.expenze.util.TraceIds;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Copies the submitting thread's MDC (traceId, userId, ...) into tasks run on the async
+ * executor, so their log lines stay attributable to the originating request. Tasks
+ * submitted outside a request get a trace id of their own.
+ */
+@Component
+public class MdcTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        return () -> {
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            if (context != null) {
+                MDC.setContextMap(context);
+            } else {
+                MDC.clear();
+            }
+            if (MDC.get("traceId") == null) {
+                MDC.put("traceId", TraceIds.newTraceId());
+            }
+            try {
+                runnable.run();
+            } finally {
+                if (previous != null) {
+                    MDC.setContextMap(previous);
+                } else {
+                    MDC.clear();
+                }
+            }
+        };
+    }
+}
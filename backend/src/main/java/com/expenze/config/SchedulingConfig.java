@@ -0,0 +1,12 @@
+package com.expenze.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs (partition maintenance etc.).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,44 +1,125 @@
 package com.expenze.config;
 
+import com.expenze.db.SqlBudgetEnforcer;
+import com.expenze.db.SqlStats;
+import com.expenze.util.TraceIds;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.util.UUID;
 
 /**
  * Filter to add a unique trace ID to each HTTP request for thread tracking.
  * The trace ID is stored in MDC (Mapped Diagnostic Context) and will appear in
  * logs.
+ * An incoming W3C {@code traceparent} header continues that trace (the legacy
+ * {@code X-Trace-Id} header is still honoured); either way the request gets its own span
+ * id and the response carries {@code traceparent} and {@code X-Trace-Id}.
+ * It also scopes the per-request SQL statistics, checked against the SQL budget once the
+ * request completes unless that already happened before the body was written, and writes
+ * one access log line per request. Runs first so security
+ * filter queries are counted too.
  */
 @Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
 public class TraceIdFilter implements Filter {
 
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("com.expenze.access");
+
     private static final String TRACE_ID_KEY = "traceId";
+    private static final String SPAN_ID_KEY = "spanId";
     private static final String TRACE_ID_HEADER = "X-Trace-Id";
+    private static final String TRACEPARENT_HEADER = "traceparent";
+    private static final int MAX_TRACE_ID_HEADER_LENGTH = 64;
+
+    private final SqlBudgetEnforcer sqlBudgetEnforcer;
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
 
         HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        long start = System.nanoTime();
 
-        // Try to get trace ID from header, otherwise generate a new one
-        String traceId = httpRequest.getHeader(TRACE_ID_HEADER);
-        if (traceId == null || traceId.trim().isEmpty()) {
-            traceId = UUID.randomUUID().toString().substring(0, 8); // Short trace ID
+        // traceparent first, then X-Trace-Id, otherwise start a new trace
+        String traceId = null;
+        String flags = "01";
+        String traceparent = httpRequest.getHeader(TRACEPARENT_HEADER);
+        if (isValidTraceparent(traceparent)) {
+            traceId = traceparent.substring(3, 35);
+            flags = traceparent.substring(53, 55);
+        } else {
+            String header = httpRequest.getHeader(TRACE_ID_HEADER);
+            if (header != null && !header.isBlank() && header.length() <= MAX_TRACE_ID_HEADER_LENGTH) {
+                traceId = header.trim();
+            }
+        }
+        if (traceId == null) {
+            traceId = TraceIds.newTraceId();
         }
+        String spanId = TraceIds.newSpanId();
 
         // Store in MDC for logging
         MDC.put(TRACE_ID_KEY, traceId);
+        MDC.put(SPAN_ID_KEY, spanId);
+        httpResponse.setHeader(TRACE_ID_HEADER, traceId);
+        if (TraceIds.isValid(traceId, TraceIds.TRACE_ID_LENGTH)) {
+            httpResponse.setHeader(TRACEPARENT_HEADER, "00-" + traceId + "-" + spanId + "-" + flags);
+        }
+        SqlStats sqlStats = SqlStats.begin(traceId);
 
         try {
             chain.doFilter(request, response);
+            // Usually already checked by SqlBudgetResponseAdvice before the body was written
+            sqlBudgetEnforcer.check(sqlStats, httpRequest, httpResponse);
         } finally {
+            logAccess(httpRequest, httpResponse, start, sqlStats);
             // Clean up MDC to prevent memory leaks
+            SqlStats.end();
             MDC.remove(TRACE_ID_KEY);
+            MDC.remove(SPAN_ID_KEY);
+        }
+    }
+
+    private void logAccess(HttpServletRequest request, HttpServletResponse response, long start, SqlStats stats) {
+        if (!ACCESS_LOG.isInfoEnabled())
+            return;
+        long totalMicros = (System.nanoTime() - start) / 1000;
+        long dbMicros = stats.getDbNanos() / 1000;
+        ACCESS_LOG.info("{} {} {} {}.{}ms db={}.{}ms statements={} rows={}", request.getMethod(),
+                request.getRequestURI(), response.getStatus(), totalMicros / 1000, (totalMicros % 1000) / 100,
+                dbMicros / 1000, (dbMicros % 1000) / 100, stats.getStatements(), stats.getRowsFetched());
+    }
+
+    // version "-" trace-id "-" parent-id "-" flags, e.g. 00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01
+    private static boolean isValidTraceparent(String header) {
+        if (header == null || header.length() < 55)
+            return false;
+        if (header.startsWith("ff") || (header.startsWith("00") && header.length() != 55))
+            return false;
+        return header.charAt(2) == '-' && header.charAt(35) == '-' && header.charAt(52) == '-'
+                && (header.length() == 55 || header.charAt(55) == '-')
+                && isHex(header, 0, 2) && isHex(header, 53, 55)
+                && TraceIds.isValid(header.subSequence(3, 35), TraceIds.TRACE_ID_LENGTH)
+                && TraceIds.isValid(header.subSequence(36, 52), TraceIds.SPAN_ID_LENGTH);
+    }
+
+    private static boolean isHex(String s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f')))
+                return false;
         }
+        return true;
     }
 }
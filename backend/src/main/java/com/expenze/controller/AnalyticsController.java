@@ -0,0 +1,45 @@
+package com.expenze.controller;
+
+import com.expenze.db.SqlBudget;
+import com.expenze.dto.CategoryTrendDto;
+import com.expenze.security.CustomUserDetails;
+import com.expenze.service.AnalyticsService;
+import com.expenze.util.MonthKey;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    /**
+     * Per-category monthly trends between {@code from} and {@code to} (YYYY-MM, inclusive;
+     * defaults to the 12 months up to the current one), optionally for some categories only
+     * ({@code categoryIds=1,2}).
+     */
+    @GetMapping("/trends")
+    // Auth lookup, SET LOCAL statement_timeout and the trends query
+    @SqlBudget(maxStatements = 3)
+    public ResponseEntity<List<CategoryTrendDto>> getTrends(@AuthenticationPrincipal CustomUserDetails user,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) List<Long> categoryIds) {
+        MonthKey toMonth = to != null ? MonthKey.parse(to) : MonthKey.now();
+        MonthKey fromMonth = from != null ? MonthKey.parse(from) : toMonth.minusMonths(11);
+        log.debug("GET /analytics/trends {}..{} categories {} - User ID: {}", fromMonth, toMonth, categoryIds,
+                user.getId());
+        return ResponseEntity.ok(analyticsService.getTrends(user.getId(), fromMonth, toMonth, categoryIds));
+    }
+}
@@ -1,5 +1,6 @@
 package com.expenze.controller;
 
+import com.expenze.db.SqlBudget;
 import com.expenze.dto.CategoryTemplateDto;
 import com.expenze.security.CustomUserDetails;
 import com.expenze.service.CategoryTemplateService;
@@ -29,6 +30,7 @@ public class CategoryTemplateController {
     }
 
     @GetMapping
+    @SqlBudget(maxStatements = 4)
     public ResponseEntity<Map<Long, List<CategoryTemplateDto>>> getAllTemplates(
             @AuthenticationPrincipal CustomUserDetails user) {
         log.debug("GET /category-templates - User: {}", user.getId());
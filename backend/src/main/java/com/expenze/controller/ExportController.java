@@ -0,0 +1,69 @@
+package com.expenze.controller;
+
+import com.expenze.export.ExportFormat;
+import com.expenze.security.CustomUserDetails;
+import com.expenze.service.ExportService;
+import com.expenze.util.MonthKey;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private static final MonthKey EARLIEST = MonthKey.of(1970, 1);
+
+    private final ExportService exportService;
+
+    /**
+     * Streams the user's history between {@code from} and {@code to} (YYYY-MM, inclusive;
+     * defaults to everything up to the current month). With {@code gzip=true} the body is
+     * gzip-compressed and served as a .gz attachment.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@AuthenticationPrincipal CustomUserDetails user,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        Long userId = user.getId();
+        MonthKey fromMonth = from != null ? MonthKey.parse(from) : EARLIEST;
+        MonthKey toMonth = to != null ? MonthKey.parse(to) : MonthKey.now();
+        if (fromMonth.compareTo(toMonth) > 0) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        log.debug("GET /export {}..{} as {} (gzip {}) - User ID: {}", fromMonth, toMonth, exportFormat, gzip, userId);
+
+        String filename = "expenze-" + fromMonth + "-" + toMonth + "." + exportFormat.getExtension()
+                + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                // syncFlush so flushes push compressed bytes to the client instead of waiting for the end
+                try (GZIPOutputStream compressed = new GZIPOutputStream(out, 8192, true)) {
+                    exportService.export(userId, fromMonth, toMonth, exportFormat, compressed);
+                }
+            } else {
+                exportService.export(userId, fromMonth, toMonth, exportFormat, out);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                        : MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,36 @@
+package com.expenze.controller;
+
+import com.expenze.db.SqlBudget;
+import com.expenze.dto.ForecastDto;
+import com.expenze.security.CustomUserDetails;
+import com.expenze.service.ForecastService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/forecast")
+@RequiredArgsConstructor
+public class ForecastController {
+
+    private final ForecastService forecastService;
+
+    /**
+     * Cash-flow projection for the current month and the {@code months - 1} after it
+     * (default 12, at most {@code expenze.forecast.max-months}).
+     */
+    @GetMapping
+    // Auth lookup, regular payments, the history aggregate and the salaries
+    @SqlBudget(maxStatements = 4)
+    public ResponseEntity<ForecastDto> getForecast(@AuthenticationPrincipal CustomUserDetails user,
+            @RequestParam(defaultValue = "12") int months) {
+        log.debug("GET /forecast months {} - User ID: {}", months, user.getId());
+        return ResponseEntity.ok(forecastService.getForecast(user.getId(), months));
+    }
+}
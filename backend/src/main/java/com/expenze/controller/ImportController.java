@@ -0,0 +1,51 @@
+package com.expenze.controller;
+
+import com.expenze.dto.ImportProgressDto;
+import com.expenze.security.CustomUserDetails;
+import com.expenze.service.ImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/import")
+@RequiredArgsConstructor
+public class ImportController {
+
+    private final ImportService importService;
+
+    /**
+     * Accepts a bank statement (CSV or OFX/QFX) and imports it in the background; answers
+     * 202 with the import's id and initial progress.
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportProgressDto> start(@AuthenticationPrincipal CustomUserDetails user,
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(required = false) String format,
+            @RequestParam(defaultValue = "yyyy-MM-dd") String dateFormat) throws IOException {
+        log.debug("POST /import {} ({} bytes) - User ID: {}", file.getOriginalFilename(), file.getSize(),
+                user.getId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(importService.start(user.getId(), file, format, dateFormat));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportProgressDto> progress(@AuthenticationPrincipal CustomUserDetails user,
+            @PathVariable String id) {
+        return ResponseEntity.ok(importService.getProgress(user.getId(), id));
+    }
+}
@@ -0,0 +1,35 @@
+package com.expenze.controller;
+
+import com.expenze.db.SqlBudget;
+import com.expenze.dto.InsightDto;
+import com.expenze.security.CustomUserDetails;
+import com.expenze.service.InsightService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/insights")
+@RequiredArgsConstructor
+public class InsightController {
+
+    private final InsightService insightService;
+
+    /** Precomputed by the nightly scan; this only reads the stored rows (at most 100). */
+    @GetMapping
+    // Auth lookup and the insights query
+    @SqlBudget(maxStatements = 2)
+    public ResponseEntity<List<InsightDto>> getInsights(@AuthenticationPrincipal CustomUserDetails user,
+            @RequestParam(defaultValue = "20") int limit) {
+        log.debug("GET /insights limit {} - User ID: {}", limit, user.getId());
+        return ResponseEntity.ok(insightService.getInsights(user.getId(), limit));
+    }
+}
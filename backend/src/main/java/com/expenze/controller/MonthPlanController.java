@@ -1,11 +1,14 @@
 package com.expenze.controller;
 
-import com.expenze.dto.MonthPlanDto;
+import com.expenze.cache.MonthPlanResponseCache;
+import com.expenze.db.SqlBudget;
 import com.expenze.dto.PaymentItemDto;
 import com.expenze.security.CustomUserDetails;
 import com.expenze.service.MonthPlanService;
+import com.expenze.util.MonthKey;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -20,14 +23,18 @@ import java.util.Map;
 public class MonthPlanController {
 
     private final MonthPlanService monthPlanService;
+    private final MonthPlanResponseCache monthPlanCache;
 
     @GetMapping("/month/{key}")
+    @SqlBudget(maxRepeats = 2)
     public ResponseEntity<?> getMonthPlan(@AuthenticationPrincipal CustomUserDetails user, @PathVariable String key) {
         log.debug("GET /month/{} - User ID: {}", key, user.getId());
         try {
-            MonthPlanDto plan = monthPlanService.getMonthPlan(user.getId(), key);
-            log.debug("Found plan for month {}: {}", key, plan != null);
-            return ResponseEntity.ok(plan);
+            MonthKey month = MonthKey.parse(key);
+            // Already-serialized JSON, from the cache or freshly loaded
+            byte[] plan = monthPlanCache.getOrLoad(user.getId(), month,
+                    () -> monthPlanService.getMonthPlan(user.getId(), month));
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(plan);
         } catch (Exception e) {
             log.error("Error getting month plan for {}: {}", key, e.getMessage(), e);
             throw e;
@@ -38,7 +45,7 @@ public class MonthPlanController {
     public ResponseEntity<?> generate(@AuthenticationPrincipal CustomUserDetails user,
             @RequestBody Map<String, String> payload) {
         String monthKey = payload.get("monthKey");
-        Long planId = monthPlanService.generateMonthPlan(user.getId(), monthKey);
+        Long planId = monthPlanService.generateMonthPlan(user.getId(), MonthKey.parse(monthKey));
         // Note: Logic in Service handles 'already exists' gracefully or we need to
         // check return.
         // Legacy: returns { message: ..., planId: ... }
@@ -60,25 +67,28 @@ public class MonthPlanController {
     }
 
     @DeleteMapping("/items/{id}")
-    public ResponseEntity<?> deleteItem(@AuthenticationPrincipal CustomUserDetails user, @PathVariable Long id) {
-        monthPlanService.deleteItem(user.getId(), id);
+    public ResponseEntity<?> deleteItem(@AuthenticationPrincipal CustomUserDetails user, @PathVariable Long id,
+            @RequestParam(required = false) String month) {
+        monthPlanService.deleteItem(user.getId(), id, month != null ? MonthKey.parse(month) : null);
         return ResponseEntity.ok(Map.of("success", true));
     }
 
     @GetMapping("/summary/last6")
+    @SqlBudget(maxStatements = 4)
     public ResponseEntity<?> getLast6Months(@AuthenticationPrincipal CustomUserDetails user) {
         return ResponseEntity.ok(monthPlanService.getLast6MonthsSummary(user.getId()));
     }
 
     @GetMapping("/category-expenses/{monthKey}")
+    @SqlBudget(maxStatements = 6)
     public ResponseEntity<?> getCategoryExpenses(@AuthenticationPrincipal CustomUserDetails user,
             @PathVariable String monthKey) {
-        return ResponseEntity.ok(monthPlanService.getCategoryExpenses(user.getId(), monthKey));
+        return ResponseEntity.ok(monthPlanService.getCategoryExpenses(user.getId(), MonthKey.parse(monthKey)));
     }
 
     @GetMapping("/salary/{monthKey}")
     public ResponseEntity<?> getSalary(@AuthenticationPrincipal CustomUserDetails user, @PathVariable String monthKey) {
-        return ResponseEntity.ok(monthPlanService.getSalary(user.getId(), monthKey));
+        return ResponseEntity.ok(monthPlanService.getSalary(user.getId(), MonthKey.parse(monthKey)));
     }
 
     @PostMapping("/salary")
@@ -93,7 +103,7 @@ public class MonthPlanController {
 
         try {
             BigDecimal amount = new BigDecimal(amountObj.toString());
-            monthPlanService.saveSalary(user.getId(), monthKey, amount);
+            monthPlanService.saveSalary(user.getId(), MonthKey.parse(monthKey), amount);
             return ResponseEntity.ok(Map.of("success", true));
         } catch (NumberFormatException e) {
             return ResponseEntity.badRequest().body(Map.of("error", "Invalid amount format"));
@@ -0,0 +1,405 @@
+package com.expenze.datagen;
+
+import com.expenze.db.DbPool;
+import com.expenze.db.Workload;
+import com.expenze.job.PaymentItemPartitionJob;
+import com.expenze.service.impl.CategoryTemplateServiceImpl;
+import com.expenze.util.Money;
+import com.expenze.util.MonthKey;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Bulk-loads a reproducible synthetic dataset for load and scaling tests.
+ *
+ * Rows are written with COPY straight into the Flyway-managed tables, in the same shapes
+ * the services produce: default categories and templates as created by
+ * CategoryTemplateServiceImpl, month plans whose items start with the active regular
+ * payments as generated by MonthPlanServiceImpl, followed by manual items.
+ *
+ * Every user is generated from its own seed derived from (datagen.seed, user index), so
+ * the same settings always produce the same data regardless of datagen.chunk-size.
+ * Only active with the "datagen" profile; the application exits when loading finishes.
+ */
+@Slf4j
+@Component
+@Profile("datagen")
+@DbPool(Workload.BACKGROUND)
+@RequiredArgsConstructor
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final int COPY_BUFFER_CHARS = 1 << 20;
+    private static final String[] PRIORITIES = { "HIGH", "MEDIUM", "MEDIUM", "MEDIUM", "LOW" };
+
+    private final DataSource dataSource;
+    private final PasswordEncoder passwordEncoder;
+    private final PaymentItemPartitionJob partitionJob;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${datagen.users:100000}")
+    private int users;
+
+    @Value("${datagen.years:5}")
+    private int years;
+
+    @Value("${datagen.items-min:30}")
+    private int itemsMin;
+
+    @Value("${datagen.items-max:200}")
+    private int itemsMax;
+
+    @Value("${datagen.regular-min:3}")
+    private int regularMin;
+
+    @Value("${datagen.regular-max:12}")
+    private int regularMax;
+
+    // Item amounts are log-normal around this median (in major units)
+    @Value("${datagen.amount-median:500}")
+    private double amountMedian;
+
+    @Value("${datagen.amount-sigma:1.0}")
+    private double amountSigma;
+
+    @Value("${datagen.salary-median:60000}")
+    private double salaryMedian;
+
+    @Value("${datagen.seed:42}")
+    private long seed;
+
+    // Users per transaction
+    @Value("${datagen.chunk-size:500}")
+    private int chunkSize;
+
+    // Shared by all generated users so load tests can log in as any of them
+    @Value("${datagen.password:datagen-password}")
+    private String password;
+
+    @Override
+    public void run(String... args) throws Exception {
+        MonthKey lastMonth = MonthKey.now();
+        MonthKey firstMonth = lastMonth.minusMonths(years * 12 - 1);
+        log.info("Generating {} users with months {}..{} (seed {})", users, firstMonth, lastMonth, seed);
+
+        partitionJob.ensurePartitions(firstMonth.year(), lastMonth.year());
+        String passwordHash = passwordEncoder.encode(password);
+
+        long started = System.nanoTime();
+        long totalItems = 0;
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            if (datasetExists(conn)) {
+                throw new IllegalStateException("Synthetic users for seed " + seed
+                        + " already exist; use a different datagen.seed or a fresh database");
+            }
+            CopyManager copyManager = conn.unwrap(PGConnection.class).getCopyAPI();
+            IdCounters ids = IdCounters.load(conn);
+
+            for (int from = 0; from < users; from += chunkSize) {
+                int to = Math.min(users, from + chunkSize);
+                totalItems += writeChunk(copyManager, ids, from, to, firstMonth, lastMonth, passwordHash);
+                conn.commit();
+                log.info("Generated users {}/{}, {} payment items so far", to, users, totalItems);
+            }
+
+            resetSequences(conn);
+            conn.commit();
+        }
+
+        log.info("Synthetic dataset complete: {} users, {} payment items in {} s", users, totalItems,
+                (System.nanoTime() - started) / 1_000_000_000L);
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+
+    private boolean datasetExists(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement();
+                ResultSet rs = st.executeQuery(
+                        "SELECT 1 FROM users WHERE username = '" + username(0) + "'")) {
+            return rs.next();
+        }
+    }
+
+    private long writeChunk(CopyManager copyManager, IdCounters ids, int from, int to, MonthKey firstMonth,
+            MonthKey lastMonth, String passwordHash) throws SQLException {
+        int months = firstMonth.monthsUntil(lastMonth) + 1;
+        List<GeneratedUser> chunk = new ArrayList<>(to - from);
+
+        StringBuilder usersCopy = new StringBuilder();
+        StringBuilder categoriesCopy = new StringBuilder();
+        StringBuilder templatesCopy = new StringBuilder();
+        StringBuilder regularCopy = new StringBuilder();
+        StringBuilder plansCopy = new StringBuilder();
+        StringBuilder salariesCopy = new StringBuilder();
+
+        String createdAt = firstMonth.firstDay() + " 09:00:00";
+        Map<String, String> icons = CategoryTemplateServiceImpl.getDefaultCategoryIcons();
+        Map<String, List<String>> templates = CategoryTemplateServiceImpl.getDefaultTemplates();
+
+        for (int index = from; index < to; index++) {
+            SplittableRandom random = userRandom(index);
+            GeneratedUser user = new GeneratedUser(ids.users++, random.nextLong(), icons.size());
+
+            // Budget is set to roughly 70% of a typical salary
+            long budget = Math.round(logNormal(random, salaryMedian) * 100) * 7 / 10;
+            row(usersCopy, user.id, username(index), passwordHash, username(index) + "@example.com", "user",
+                    createdAt, 1, Money.fromMinorUnits(budget));
+
+            // Default categories and templates, as initializeDefaultTemplates creates them
+            int categoryIndex = 0;
+            for (Map.Entry<String, String> entry : icons.entrySet()) {
+                long categoryId = ids.categories++;
+                user.categoryIds[categoryIndex] = categoryId;
+                row(categoriesCopy, categoryId, user.id, entry.getKey(), categoryIndex, 1, entry.getValue());
+
+                List<String> subOptions = templates.getOrDefault(entry.getKey(), List.of(entry.getKey()));
+                user.subOptions.add(subOptions);
+                for (int t = 0; t < subOptions.size(); t++) {
+                    row(templatesCopy, ids.templates++, user.id, categoryId, subOptions.get(t), t, 1, createdAt);
+                }
+                categoryIndex++;
+            }
+
+            // Regular payments, some ending or starting part-way through the period
+            int regularCount = between(random, regularMin, regularMax);
+            for (int r = 0; r < regularCount; r++) {
+                int category = random.nextInt(user.categoryIds.length);
+                List<String> subOptions = user.subOptions.get(category);
+                int startIndex = random.nextInt(4) == 0 ? random.nextInt(months) : 0;
+                int endIndex = random.nextInt(5) == 0 ? between(random, startIndex, months - 1) : -1;
+                GeneratedRegular regular = new GeneratedRegular(user.categoryIds[category],
+                        subOptions.get(random.nextInt(subOptions.size())),
+                        Math.round(logNormal(random, amountMedian) * 100), startIndex, endIndex);
+                user.regulars.add(regular);
+
+                row(regularCopy, ids.regularPayments++, user.id, regular.name, regular.categoryId,
+                        Money.fromMinorUnits(regular.amount), null,
+                        firstMonth.plusMonths(startIndex).firstDay(),
+                        endIndex < 0 ? null : firstMonth.plusMonths(endIndex).lastDay(), "MONTHLY", 1);
+            }
+
+            // One plan and one salary per month
+            user.firstPlanId = ids.monthPlans;
+            long salary = Math.round(logNormal(random, salaryMedian) * 100);
+            for (int m = 0; m < months; m++) {
+                MonthKey month = firstMonth.plusMonths(m);
+                String monthCreatedAt = month.firstDay() + " 09:00:00";
+                row(plansCopy, ids.monthPlans++, user.id, month.value(), monthCreatedAt);
+                row(salariesCopy, ids.salaries++, user.id, month.value(), Money.fromMinorUnits(salary),
+                        monthCreatedAt);
+                if (month.month() == 4) {
+                    salary += salary * random.nextInt(8) / 100;
+                }
+            }
+
+            chunk.add(user);
+        }
+
+        copy(copyManager, "users (id, username, password, email, role, created_at, is_verified, default_budget)",
+                usersCopy);
+        copy(copyManager, "categories (id, user_id, name, sort_order, is_active, icon)", categoriesCopy);
+        copy(copyManager, "category_templates (id, user_id, category_id, sub_option, sort_order, is_active, "
+                + "created_at)", templatesCopy);
+        copy(copyManager, "regular_payments (id, user_id, name, category_id, default_planned_amount, notes, "
+                + "start_date, end_date, frequency, is_active)", regularCopy);
+        copy(copyManager, "month_plans (id, user_id, month_num, created_at)", plansCopy);
+        copy(copyManager, "salaries (id, user_id, month_num, amount, created_at)", salariesCopy);
+
+        return writePaymentItems(copyManager, ids, chunk, firstMonth, months, lastMonth);
+    }
+
+    private long writePaymentItems(CopyManager copyManager, IdCounters ids, List<GeneratedUser> chunk,
+            MonthKey firstMonth, int months, MonthKey currentMonth) throws SQLException {
+        CopyIn copyIn = copyManager.copyIn("COPY payment_items (id, user_id, month_plan_id, month_num, "
+                + "category_id, name, planned_amount, actual_amount, is_paid, notes, priority, created_at) "
+                + "FROM STDIN");
+        long written = 0;
+        try {
+            StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS + 4096);
+            for (GeneratedUser user : chunk) {
+                for (int m = 0; m < months; m++) {
+                    MonthKey month = firstMonth.plusMonths(m);
+                    SplittableRandom random = new SplittableRandom(user.seed * 31 + month.value());
+                    long planId = user.firstPlanId + m;
+                    String createdAt = month.firstDay() + " 09:00:00";
+                    boolean current = month.equals(currentMonth);
+                    int itemCount = between(random, itemsMin, itemsMax);
+                    int count = 0;
+
+                    // generateMonthPlan puts every active regular payment in the plan first
+                    for (GeneratedRegular regular : user.regulars) {
+                        if (m < regular.startIndex || (regular.endIndex >= 0 && m > regular.endIndex))
+                            continue;
+                        itemRow(buffer, ids.paymentItems++, user.id, planId, month, regular.categoryId,
+                                regular.name, regular.amount, random, current, createdAt);
+                        count++;
+                    }
+
+                    for (; count < itemCount; count++) {
+                        int category = random.nextInt(user.categoryIds.length);
+                        List<String> subOptions = user.subOptions.get(category);
+                        itemRow(buffer, ids.paymentItems++, user.id, planId, month, user.categoryIds[category],
+                                subOptions.get(random.nextInt(subOptions.size())),
+                                Math.round(logNormal(random, amountMedian) * 100), random, current, createdAt);
+                    }
+                    written += count;
+
+                    if (buffer.length() >= COPY_BUFFER_CHARS) {
+                        flush(copyIn, buffer);
+                    }
+                }
+            }
+            flush(copyIn, buffer);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+        return written;
+    }
+
+    private void itemRow(StringBuilder buffer, long id, long userId, long planId, MonthKey month, long categoryId,
+            String name, long planned, SplittableRandom random, boolean currentMonth, String createdAt) {
+        // Closed months are almost fully paid; the current one is partly filled in
+        boolean paid = random.nextInt(100) < (currentMonth ? 40 : 95);
+        long actual = paid ? planned * between(random, 80, 120) / 100 : 0;
+        row(buffer, id, userId, planId, month.value(), categoryId, name, Money.fromMinorUnits(planned),
+                Money.fromMinorUnits(actual), paid ? 1 : 0, null, PRIORITIES[random.nextInt(PRIORITIES.length)],
+                createdAt);
+    }
+
+    private void copy(CopyManager copyManager, String target, StringBuilder rows) throws SQLException {
+        CopyIn copyIn = copyManager.copyIn("COPY " + target + " FROM STDIN");
+        try {
+            flush(copyIn, rows);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private void flush(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private void resetSequences(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            for (String table : IdCounters.TABLES) {
+                st.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), "
+                        + "(SELECT COALESCE(MAX(id), 0) + 1 FROM " + table + "), false)");
+            }
+        }
+    }
+
+    // COPY text format: tab separated, \N for null
+    private static void row(StringBuilder sb, Object... values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0)
+                sb.append('\t');
+            Object value = values[i];
+            if (value == null) {
+                sb.append("\\N");
+            } else if (value instanceof BigDecimal decimal) {
+                sb.append(decimal.toPlainString());
+            } else {
+                sb.append(value);
+            }
+        }
+        sb.append('\n');
+    }
+
+    private String username(int index) {
+        return "datagen" + seed + "_" + index;
+    }
+
+    private SplittableRandom userRandom(int index) {
+        return new SplittableRandom(seed * 1_000_003L + index);
+    }
+
+    private double logNormal(SplittableRandom random, double median) {
+        return median * Math.exp(amountSigma * random.nextGaussian());
+    }
+
+    private static int between(SplittableRandom random, int min, int max) {
+        return max <= min ? min : min + random.nextInt(max - min + 1);
+    }
+
+    private static final class GeneratedUser {
+        final long id;
+        final long seed;
+        final long[] categoryIds;
+        final List<List<String>> subOptions = new ArrayList<>();
+        final List<GeneratedRegular> regulars = new ArrayList<>();
+        long firstPlanId;
+
+        GeneratedUser(long id, long seed, int categories) {
+            this.id = id;
+            this.seed = seed;
+            this.categoryIds = new long[categories];
+        }
+    }
+
+    // startIndex/endIndex are month offsets from the first generated month; endIndex -1 = open-ended
+    private record GeneratedRegular(long categoryId, String name, long amount, int startIndex, int endIndex) {
+    }
+
+    // Ids are assigned client-side so child rows can reference them inside the same COPY batch
+    private static final class IdCounters {
+        static final String[] TABLES = { "users", "categories", "category_templates", "regular_payments",
+                "month_plans", "salaries", "payment_items" };
+
+        long users;
+        long categories;
+        long templates;
+        long regularPayments;
+        long monthPlans;
+        long salaries;
+        long paymentItems;
+
+        static IdCounters load(Connection conn) throws SQLException {
+            IdCounters ids = new IdCounters();
+            ids.users = nextId(conn, "users");
+            ids.categories = nextId(conn, "categories");
+            ids.templates = nextId(conn, "category_templates");
+            ids.regularPayments = nextId(conn, "regular_payments");
+            ids.monthPlans = nextId(conn, "month_plans");
+            ids.salaries = nextId(conn, "salaries");
+            ids.paymentItems = nextId(conn, "payment_items");
+            return ids;
+        }
+
+        private static long nextId(Connection conn, String table) throws SQLException {
+            try (Statement st = conn.createStatement();
+                    ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.expenze.db;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Connection pools: one primary pool per {@link Workload} (bulkheads), and optionally
+ * read replicas for read-only transactions.
+ *
+ * Every pool is built from {@code spring.datasource.*} and {@code spring.datasource.hikari.*};
+ * workload pools then apply {@code expenze.datasource.pools.<workload>.*} on top, so sizes and
+ * timeouts are set per workload. Replica pools (when {@code expenze.datasource.replicas} lists
+ * JDBC URLs) are read-only and shared by all workloads. All pools report hikaricp.* meters
+ * tagged with their pool name.
+ */
+@Slf4j
+@Configuration
+public class DataSourceConfig {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private ReplicaRoutingDataSource routing;
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${expenze.datasource.bulkheads:true}") boolean bulkheads,
+            @Value("${expenze.datasource.replicas:}") List<String> replicaUrls,
+            @Value("${expenze.datasource.replica-max-lag-ms:5000}") long maxLagMs,
+            @Value("${expenze.datasource.read-your-writes-ms:0}") long readYourWritesMs) {
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+        Binder binder = Binder.get(environment);
+
+        Map<Workload, HikariDataSource> workloadPools = new EnumMap<>(Workload.class);
+        if (bulkheads) {
+            for (Workload workload : Workload.values()) {
+                HikariDataSource pool = newPool(properties, binder, properties.determineUrl(), workload.poolName());
+                binder.bind("expenze.datasource.pools." + workload.poolName(), Bindable.ofInstance(pool));
+                pool.setMetricsTrackerFactory(metrics);
+                registerSaturation(meterRegistry, pool);
+                workloadPools.put(workload, pool);
+            }
+        } else {
+            // Baseline for comparisons: every workload shares one pool sized by spring.datasource.hikari
+            HikariDataSource shared = newPool(properties, binder, properties.determineUrl(), "shared");
+            shared.setMetricsTrackerFactory(metrics);
+            registerSaturation(meterRegistry, shared);
+            for (Workload workload : Workload.values()) {
+                workloadPools.put(workload, shared);
+            }
+        }
+        WorkloadRoutingDataSource primary = new WorkloadRoutingDataSource(workloadPools);
+        primary.afterPropertiesSet();
+        log.info("Workload pools: {}", workloadPools.entrySet().stream()
+                .map(e -> e.getKey().poolName() + "=" + e.getValue().getPoolName() + "("
+                        + e.getValue().getMaximumPoolSize() + ")")
+                .toList());
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource replica = newPool(properties, binder, url.trim(), name);
+            replica.setReadOnly(true);
+            // Replicas must not delay startup or fail it; the health check admits them
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricsTrackerFactory(metrics);
+            registerSaturation(meterRegistry, replica);
+            replicas.put(name, replica);
+        }
+        if (replicas.isEmpty()) {
+            return new LazyConnectionDataSourceProxy(primary);
+        }
+
+        routing = new ReplicaRoutingDataSource(primary, replicas, maxLagMs, readYourWritesMs);
+        routing.afterPropertiesSet();
+        Gauge.builder("expenze.datasource.replicas.healthy", routing, ReplicaRoutingDataSource::healthyReplicaCount)
+                .description("Replicas currently eligible for read-only transactions")
+                .register(meterRegistry);
+        replicas.keySet().forEach(name -> Gauge
+                .builder("expenze.datasource.replica.lag", routing, r -> r.replicaLagMs(name))
+                .tag("replica", name)
+                .baseUnit("milliseconds")
+                .register(meterRegistry));
+
+        log.info("Routing read-only transactions to {} replica(s), max lag {} ms, read-your-writes {} ms",
+                replicas.size(), maxLagMs, readYourWritesMs);
+        // Lazy, because the transaction manager opens the connection before the
+        // read-only flag is bound
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // First run right after startup; until then reads go to the primary
+    @Scheduled(fixedDelayString = "${expenze.datasource.replica-check-interval-ms:5000}")
+    public void checkReplicas() {
+        if (routing != null) {
+            routing.checkReplicas();
+        }
+    }
+
+    @PreDestroy
+    public void closePools() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private HikariDataSource newPool(DataSourceProperties properties, Binder binder, String url, String poolName) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        // Same spring.datasource.hikari.* tuning Boot would apply to its own pool
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(poolName);
+        pools.add(pool);
+        return pool;
+    }
+
+    // Busy share of the pool: at 1.0 further callers queue (hikaricp.connections.pending)
+    // and time out after the pool's connection-timeout (hikaricp.connections.timeout)
+    private static void registerSaturation(MeterRegistry meterRegistry, HikariDataSource pool) {
+        Gauge.builder("expenze.datasource.pool.saturation", pool, p -> {
+            HikariPoolMXBean mxBean = p.getHikariPoolMXBean();
+            return mxBean == null ? 0 : (double) mxBean.getActiveConnections() / p.getMaximumPoolSize();
+        })
+                .tag("pool", pool.getPoolName())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,20 @@
+package com.expenze.db;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Selects the connection pool for a service method (or every public method of a bean).
+ * Takes effect for the outermost call: a transaction that already holds a connection
+ * keeps it, so a reporting method called from interactive work stays on the interactive pool.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.TYPE })
+public @interface DbPool {
+
+    Workload value();
+}
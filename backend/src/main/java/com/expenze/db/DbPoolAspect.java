@@ -0,0 +1,36 @@
+package com.expenze.db;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Binds the {@link DbPool} workload around annotated calls. Ordered ahead of the
+ * transaction interceptor so the workload is in place before a transaction asks for
+ * its connection.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DbPoolAspect {
+
+    @Around("@annotation(com.expenze.db.DbPool) || @within(com.expenze.db.DbPool)")
+    public Object bindWorkload(ProceedingJoinPoint joinPoint) throws Throwable {
+        DbPool pool = AnnotatedElementUtils.findMergedAnnotation(
+                ((MethodSignature) joinPoint.getSignature()).getMethod(), DbPool.class);
+        if (pool == null) {
+            pool = AnnotatedElementUtils.findMergedAnnotation(joinPoint.getTarget().getClass(), DbPool.class);
+        }
+        Workload previous = Workload.bind(pool.value());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            Workload.bind(previous);
+        }
+    }
+}
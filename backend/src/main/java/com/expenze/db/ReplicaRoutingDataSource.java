@@ -0,0 +1,202 @@
+package com.expenze.db;
+
+import com.expenze.security.CustomUserDetails;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends {@code @Transactional(readOnly = true)} work to a streaming replica, everything else
+ * to the primary.
+ *
+ * Replicas are picked round-robin among those that passed the last health check; a replica
+ * is skipped while it is unreachable or its replay lag is above the threshold, and with no
+ * healthy replica reads go to the primary. With a read-your-writes window, a user who
+ * committed a write within the window reads from the primary so they see their own change.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction manager opens the
+ * connection before the read-only flag is bound, so the lookup has to wait for the first
+ * statement.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    // Zero when the replica has replayed everything it received, so an idle primary
+    // does not read as growing lag
+    private static final String LAG_SQL = """
+            SELECT CASE
+                     WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                     ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   END""";
+
+    private static final Object WRITE_TRACKED = new Object();
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final long maxLagMs;
+    private final long readYourWritesMs;
+    private final Map<Long, Long> lastWriteByUser = new ConcurrentHashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, long maxLagMs,
+            long readYourWritesMs) {
+        this.maxLagMs = maxLagMs;
+        this.readYourWritesMs = readYourWritesMs;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach((name, dataSource) -> {
+            targets.put(name, dataSource);
+            this.replicas.add(new Replica(name, dataSource));
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+        Long userId = currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWrite(userId);
+            return PRIMARY;
+        }
+        if (userId != null && recentlyWrote(userId)) {
+            return PRIMARY;
+        }
+        return nextHealthyReplica();
+    }
+
+    private String nextHealthyReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica.name;
+            }
+        }
+        return PRIMARY;
+    }
+
+    /** Probes every replica once; called on a fixed delay. */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection();
+                    Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(2);
+                try (ResultSet rs = statement.executeQuery(LAG_SQL)) {
+                    rs.next();
+                    replica.lagMs = rs.getLong(1);
+                }
+                healthy = replica.lagMs <= maxLagMs;
+                if (!healthy && replica.healthy) {
+                    log.warn("Replica {} lags {} ms (max {} ms), reads fall back to the primary",
+                            replica.name, replica.lagMs, maxLagMs);
+                }
+            } catch (Exception e) {
+                healthy = false;
+                if (replica.healthy) {
+                    log.warn("Replica {} is unreachable, reads fall back to the primary: {}",
+                            replica.name, e.getMessage());
+                }
+            }
+            if (healthy && !replica.healthy) {
+                log.info("Replica {} is healthy again (lag {} ms)", replica.name, replica.lagMs);
+            }
+            replica.healthy = healthy;
+        }
+
+        if (readYourWritesMs > 0) {
+            long cutoff = System.currentTimeMillis() - readYourWritesMs;
+            lastWriteByUser.values().removeIf(at -> at < cutoff);
+        }
+    }
+
+    public int healthyReplicaCount() {
+        int count = 0;
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public long replicaLagMs(String name) {
+        for (Replica replica : replicas) {
+            if (replica.name.equals(name)) {
+                return replica.lagMs;
+            }
+        }
+        throw new IllegalArgumentException("Unknown replica: " + name);
+    }
+
+    private boolean recentlyWrote(Long userId) {
+        if (readYourWritesMs <= 0) {
+            return false;
+        }
+        Long at = lastWriteByUser.get(userId);
+        return at != null && System.currentTimeMillis() - at < readYourWritesMs;
+    }
+
+    // The window starts when the read-write transaction commits, not when it opens
+    private void trackWrite(Long userId) {
+        if (readYourWritesMs <= 0 || userId == null
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(WRITE_TRACKED)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(WRITE_TRACKED, userId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWriteByUser.put(userId, System.currentTimeMillis());
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_TRACKED);
+            }
+        });
+    }
+
+    private static Long currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof CustomUserDetails user) {
+            return user.getId();
+        }
+        return null;
+    }
+
+    private static final class Replica {
+        final String name;
+        final DataSource dataSource;
+        // Unproven until the first check passes
+        volatile boolean healthy;
+        volatile long lagMs;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
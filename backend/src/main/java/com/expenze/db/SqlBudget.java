@@ -0,0 +1,26 @@
+package com.expenze.db;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * SQL budget for a controller method (or every handler of a controller), overriding the
+ * global {@code expenze.sql.max-statements} / {@code expenze.sql.max-repeats} limits.
+ * With {@code expenze.sql.fail-on-violation=true}, exceeding it fails the request with
+ * {@link com.expenze.exception.SqlBudgetExceededException}; {@code SqlBudgetIntegrationTest}
+ * calls the budgeted endpoints that way.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.TYPE })
+public @interface SqlBudget {
+
+    /** Maximum statements per request; negative means the global default. */
+    int maxStatements() default -1;
+
+    /** Maximum executions of one SELECT shape per request; negative means the global default. */
+    int maxRepeats() default -1;
+}
@@ -0,0 +1,71 @@
+package com.expenze.db;
+
+import com.expenze.exception.SqlBudgetExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Checks a request's SqlStats against its budget, once per request: warns by default, throws
+ * when {@code expenze.sql.fail-on-violation} is set (as {@code SqlBudgetIntegrationTest} does).
+ *
+ * {@link SqlBudgetResponseAdvice} checks before the response body is written, so a thrown
+ * violation still becomes an error response. Requests without a converted body are checked
+ * by TraceIdFilter afterwards; their response may be committed by then, so the violation is
+ * only logged. Either way it is kept on the SqlStats and counted in
+ * {@code expenze.sql.budget.violations}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SqlBudgetEnforcer {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${expenze.sql.max-statements:30}")
+    private int defaultMaxStatements;
+
+    @Value("${expenze.sql.max-repeats:5}")
+    private int defaultMaxRepeats;
+
+    @Value("${expenze.sql.fail-on-violation:false}")
+    private boolean failOnViolation;
+
+    public void check(SqlStats stats, HttpServletRequest request, HttpServletResponse response) {
+        if (stats.isChecked())
+            return;
+        SqlBudget budget = stats.getBudget();
+        int maxStatements = budget != null && budget.maxStatements() >= 0 ? budget.maxStatements()
+                : defaultMaxStatements;
+        int maxRepeats = budget != null && budget.maxRepeats() >= 0 ? budget.maxRepeats() : defaultMaxRepeats;
+
+        String violation = null;
+        Map.Entry<String, Integer> repeated = stats.mostRepeatedSelect();
+        if (stats.getStatements() > maxStatements) {
+            violation = String.format("%d statements exceed the budget of %d", stats.getStatements(), maxStatements);
+        } else if (repeated != null && repeated.getValue() > maxRepeats) {
+            violation = String.format("SELECT repeated %d times (limit %d), likely N+1: %s", repeated.getValue(),
+                    maxRepeats, repeated.getKey());
+        }
+        stats.markChecked(violation);
+        if (violation == null)
+            return;
+
+        String handler = stats.getHandler() != null ? stats.getHandler() : request.getRequestURI();
+        meterRegistry.counter("expenze.sql.budget.violations", "handler", handler).increment();
+        String message = "SQL budget exceeded in " + handler + " [trace " + stats.getTraceId() + "]: " + violation;
+        if (!failOnViolation) {
+            log.warn(message);
+        } else if (response.isCommitted()) {
+            log.error(message + " (response already committed)");
+        } else {
+            throw new SqlBudgetExceededException(message);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.expenze.db;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Attaches the handler name and its {@link SqlBudget}, if any, to the request's SqlStats.
+ */
+@Component
+public class SqlBudgetInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlStats stats = SqlStats.current();
+        if (stats != null && handler instanceof HandlerMethod method) {
+            SqlBudget budget = AnnotatedElementUtils.findMergedAnnotation(method.getMethod(), SqlBudget.class);
+            if (budget == null) {
+                budget = AnnotatedElementUtils.findMergedAnnotation(method.getBeanType(), SqlBudget.class);
+            }
+            stats.setHandler(method.getBeanType().getSimpleName() + "." + method.getMethod().getName(), budget);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,120 @@
+package com.expenze.db;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JDBC activity of the current HTTP request: statements executed, rows fetched, time spent
+ * in the driver, and how often each SELECT shape was repeated (the N+1 signal).
+ *
+ * Bound to the request thread by TraceIdFilter; statements issued on other threads (async
+ * request processing such as StreamingResponseBody exports, executors) or outside a request
+ * (jobs, Flyway) are not counted.
+ */
+public final class SqlStats {
+
+    private static final ThreadLocal<SqlStats> CURRENT = new ThreadLocal<>();
+
+    private final String traceId;
+    private final Map<String, Integer> selectShapes = new HashMap<>();
+    private int statements;
+    private long rowsFetched;
+    private long dbNanos;
+    private SqlBudget budget;
+    private String handler;
+    private boolean checked;
+    private String violation;
+
+    private SqlStats(String traceId) {
+        this.traceId = traceId;
+    }
+
+    public static SqlStats begin(String traceId) {
+        SqlStats stats = new SqlStats(traceId);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static SqlStats current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    void onStatement(String sql, long nanos) {
+        statements++;
+        dbNanos += nanos;
+        if (sql != null && isSelect(sql)) {
+            selectShapes.merge(SqlShape.of(sql), 1, Integer::sum);
+        }
+    }
+
+    void onRow() {
+        rowsFetched++;
+    }
+
+    /** Most repeated SELECT shape and its count, or null if no SELECT ran. */
+    public Map.Entry<String, Integer> mostRepeatedSelect() {
+        Map.Entry<String, Integer> max = null;
+        for (Map.Entry<String, Integer> entry : selectShapes.entrySet()) {
+            if (max == null || entry.getValue() > max.getValue()) {
+                max = entry;
+            }
+        }
+        return max;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRowsFetched() {
+        return rowsFetched;
+    }
+
+    public long getDbNanos() {
+        return dbNanos;
+    }
+
+    public SqlBudget getBudget() {
+        return budget;
+    }
+
+    public String getHandler() {
+        return handler;
+    }
+
+    /** Whether the budget has been checked for this request. */
+    public boolean isChecked() {
+        return checked;
+    }
+
+    /** The budget violation found by the check, or null. */
+    public String getViolation() {
+        return violation;
+    }
+
+    void markChecked(String violation) {
+        this.checked = true;
+        this.violation = violation;
+    }
+
+    void setHandler(String handler, SqlBudget budget) {
+        this.handler = handler;
+        this.budget = budget;
+    }
+
+    private static boolean isSelect(String sql) {
+        int i = 0;
+        while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+            i++;
+        }
+        return sql.regionMatches(true, i, "select", 0, 6) || sql.regionMatches(true, i, "with", 0, 4);
+    }
+}
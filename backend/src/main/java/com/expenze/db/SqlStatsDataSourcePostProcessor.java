@@ -0,0 +1,24 @@
+package com.expenze.db;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+
+/**
+ * Wraps every DataSource bean so statements, rows and DB time are counted per request.
+ */
+@Component
+@ConditionalOnProperty(name = "expenze.sql.stats.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatsDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !Proxy.isProxyClass(bean.getClass())) {
+            return SqlStatsProxies.wrap(dataSource);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,115 @@
+package com.expenze.db;
+
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * JDK dynamic proxies over the JDBC chain DataSource -> Connection -> Statement -> ResultSet
+ * that report into the current request's {@link SqlStats}. Calls made outside a request
+ * pass straight through after a single ThreadLocal read.
+ */
+final class SqlStatsProxies {
+
+    private SqlStatsProxies() {
+    }
+
+    static DataSource wrap(DataSource dataSource) {
+        // Keep every interface of the target (e.g. Closeable, the pool's MXBean) so
+        // destroy-method inference and metrics binders still see them
+        Class<?>[] interfaces = ClassUtils.getAllInterfacesForClass(dataSource.getClass(),
+                dataSource.getClass().getClassLoader());
+        return (DataSource) Proxy.newProxyInstance(dataSource.getClass().getClassLoader(), interfaces,
+                (proxy, method, args) -> {
+                    Object result = invoke(proxy, dataSource, method, args);
+                    if (result instanceof Connection connection && method.getName().equals("getConnection")) {
+                        return proxy(Connection.class, new ConnectionHandler(connection));
+                    }
+                    return result;
+                });
+    }
+
+    private static Object invoke(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        // Identity semantics, so proxies work as keys in the transaction and resource registries
+        if (method.getName().equals("equals") && method.getParameterCount() == 1)
+            return proxy == args[0];
+        if (method.getName().equals("hashCode") && method.getParameterCount() == 0)
+            return System.identityHashCode(proxy);
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SqlStatsProxies.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    private record ConnectionHandler(Connection target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlStatsProxies.invoke(proxy, target, method, args);
+            return switch (method.getName()) {
+                case "prepareCall" -> proxy(CallableStatement.class,
+                        new StatementHandler((Statement) result, (String) args[0]));
+                case "prepareStatement" -> proxy(PreparedStatement.class,
+                        new StatementHandler((Statement) result, (String) args[0]));
+                case "createStatement" -> proxy(Statement.class, new StatementHandler((Statement) result, null));
+                default -> result;
+            };
+        }
+    }
+
+    private record StatementHandler(Statement target, String preparedSql) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            SqlStats stats = SqlStats.current();
+            if (stats == null || !name.startsWith("execute")) {
+                Object result = SqlStatsProxies.invoke(proxy, target, method, args);
+                if (stats != null && result instanceof ResultSet rs && name.equals("getResultSet")) {
+                    return proxy(ResultSet.class, new ResultSetHandler(rs, stats));
+                }
+                return result;
+            }
+
+            String sql = preparedSql != null ? preparedSql
+                    : (args != null && args.length > 0 && args[0] instanceof String s ? s : null);
+            long start = System.nanoTime();
+            try {
+                Object result = SqlStatsProxies.invoke(proxy, target, method, args);
+                if (result instanceof ResultSet rs) {
+                    return proxy(ResultSet.class, new ResultSetHandler(rs, stats));
+                }
+                return result;
+            } finally {
+                stats.onStatement(sql, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private record ResultSetHandler(ResultSet target, SqlStats stats) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlStatsProxies.invoke(proxy, target, method, args);
+            if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                stats.onRow();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.expenze.db;
+
+/**
+ * Kinds of database work, each served by its own connection pool so one kind cannot
+ * starve the others of connections.
+ */
+public enum Workload {
+
+    /** Request-path CRUD; the default for anything not annotated. */
+    INTERACTIVE,
+
+    /** Summaries, analytics and exports: few, slow, expensive queries. */
+    REPORTING,
+
+    /** Scheduled jobs and bulk loads. */
+    BACKGROUND;
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    public static Workload current() {
+        Workload workload = CURRENT.get();
+        return workload != null ? workload : INTERACTIVE;
+    }
+
+    /** Binds a workload to the current thread and returns the previous binding. */
+    static Workload bind(Workload workload) {
+        Workload previous = CURRENT.get();
+        if (workload != null) {
+            CURRENT.set(workload);
+        } else {
+            CURRENT.remove();
+        }
+        return previous;
+    }
+
+    String poolName() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,18 @@
+package com.expenze.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategoryTrendDto {
+    private Long categoryId; // null for items without a category
+    private String categoryName;
+    private List<TrendPointDto> points;
+}
@@ -0,0 +1,21 @@
+package com.expenze.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ForecastDto {
+    // Closed months the manual item average and expected salary are taken from
+    private String historyFrom;
+    private String historyTo;
+    private BigDecimal expectedSalary;
+    private List<ForecastMonthDto> months;
+}
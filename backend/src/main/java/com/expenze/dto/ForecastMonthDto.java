@@ -0,0 +1,27 @@
+package com.expenze.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ForecastMonthDto {
+    private String monthKey;
+    // Regular payments due in the month, per their frequency
+    private BigDecimal recurringOutflow;
+    // Average monthly total of manual items over the history window
+    private BigDecimal manualOutflow;
+    private BigDecimal totalOutflow;
+    private BigDecimal income;
+    // True when income is the salary recorded for the month, false when it is the expected one
+    private boolean incomeRecorded;
+    private BigDecimal net;
+    // Running total of net from the first forecast month
+    private BigDecimal cumulativeNet;
+}
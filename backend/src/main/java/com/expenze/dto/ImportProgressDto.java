@@ -0,0 +1,29 @@
+package com.expenze.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportProgressDto {
+    private String id;
+    private String filename;
+    private String format;
+    private String status; // RUNNING, COMPLETED, FAILED
+    private long rowsRead;
+    private long imported;
+    private long duplicates;
+    private long skippedCredits;
+    private long skippedArchived;
+    private long invalid;
+    private List<String> errors;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
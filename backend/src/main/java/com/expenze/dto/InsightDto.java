@@ -0,0 +1,26 @@
+package com.expenze.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class InsightDto {
+    private Long id;
+    private String monthKey;
+    private Long categoryId;
+    private String kind;
+    private BigDecimal actualAmount;
+    private BigDecimal baselineMean;
+    // Standard deviations above the baseline mean
+    private BigDecimal score;
+    private String message;
+    private LocalDateTime createdAt;
+}
@@ -18,4 +18,5 @@ public class MonthPlanDto {
     private String monthKey;
     private LocalDateTime createdAt;
     private List<PaymentItemDto> items;
+    private boolean archived; // Items served from an archive segment (read-only)
 }
@@ -0,0 +1,24 @@
+package com.expenze.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TrendPointDto {
+    private String monthKey;
+    private BigDecimal planned;
+    private BigDecimal actual;
+    // Averages of actual over this and the preceding 2 / 11 months; empty months count as 0
+    private BigDecimal rollingAverage3;
+    private BigDecimal rollingAverage12;
+    // Against the same month a year earlier; the percentage is null when that month was 0
+    private BigDecimal yearOverYearDelta;
+    private BigDecimal yearOverYearPercent;
+}
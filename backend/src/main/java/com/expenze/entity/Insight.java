@@ -0,0 +1,54 @@
+package com.expenze.entity;
+
+import com.expenze.util.MonthKey;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Written in bulk by InsightScanner; read-only through JPA
+@Entity
+@Table(name = "insights")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Insight {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "month_num", nullable = false)
+    private MonthKey month;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(nullable = false)
+    private String kind; // SPENDING_SPIKE
+
+    @Column(name = "actual_amount")
+    private BigDecimal actualAmount;
+
+    @Column(name = "baseline_mean")
+    private BigDecimal baselineMean;
+
+    @Column(name = "baseline_stddev")
+    private BigDecimal baselineStddev;
+
+    @Column(name = "z_score")
+    private BigDecimal score; // standard deviations above the baseline mean
+
+    private String message;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,22 @@
+package com.expenze.entity;
+
+import com.expenze.util.MonthKey;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Maps {@link MonthKey} to the integer {@code month_num} columns (yyyymm).
+ */
+@Converter(autoApply = true)
+public class MonthKeyConverter implements AttributeConverter<MonthKey, Integer> {
+
+    @Override
+    public Integer convertToDatabaseColumn(MonthKey month) {
+        return month != null ? month.value() : null;
+    }
+
+    @Override
+    public MonthKey convertToEntityAttribute(Integer value) {
+        return value != null ? new MonthKey(value) : null;
+    }
+}
@@ -1,5 +1,6 @@
 package com.expenze.entity;
 
+import com.expenze.util.MonthKey;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,7 +12,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "month_plans", uniqueConstraints = {
-        @UniqueConstraint(columnNames = { "user_id", "monthkey" })
+        @UniqueConstraint(columnNames = { "user_id", "month_num" })
 })
 @Data
 @NoArgsConstructor
@@ -26,10 +27,21 @@ public class MonthPlan {
     @Column(name = "user_id")
     private Long userId;
 
-    @Column(name = "monthkey", nullable = false)
-    private String monthKey; // YYYY-MM
+    @Column(name = "month_num", nullable = false)
+    private MonthKey month; // yyyymm
 
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
+
+    // Set once the month's items have been moved to an archive segment
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+
+    // Item id range of the archive segment, to find an archived item's month without reading segments
+    @Column(name = "archived_min_item_id")
+    private Long archivedMinItemId;
+
+    @Column(name = "archived_max_item_id")
+    private Long archivedMaxItemId;
 }
@@ -1,10 +1,12 @@
 package com.expenze.entity;
 
+import com.expenze.util.MonthKey;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import org.hibernate.annotations.PartitionKey;
 
 import java.math.BigDecimal;
 
@@ -26,6 +28,12 @@ public class PaymentItem {
     @Column(name = "month_plan_id")
     private Long monthPlanId;
 
+    // Copy of the owning plan's month; partition key of payment_items, also added by Hibernate
+    // to the WHERE clause of entity updates and deletes
+    @PartitionKey
+    @Column(name = "month_num", nullable = false, updatable = false)
+    private MonthKey month;
+
     @Column(name = "category_id")
     private Long categoryId;
 
@@ -49,4 +57,8 @@ public class PaymentItem {
     @Column(name = "priority")
     @Builder.Default
     private String priority = "MEDIUM"; // HIGH, MEDIUM, LOW
+
+    // Hash of the statement row an imported item came from; null for items entered by hand
+    @Column(name = "import_hash", updatable = false)
+    private String importHash;
 }
@@ -1,5 +1,6 @@
 package com.expenze.entity;
 
+import com.expenze.util.MonthKey;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -12,7 +13,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "salaries", uniqueConstraints = {
-        @UniqueConstraint(columnNames = { "user_id", "monthkey" })
+        @UniqueConstraint(columnNames = { "user_id", "month_num" })
 })
 @Data
 @NoArgsConstructor
@@ -27,8 +28,8 @@ public class Salary {
     @Column(name = "user_id")
     private Long userId;
 
-    @Column(name = "monthkey", nullable = false)
-    private String monthKey; // YYYY-MM
+    @Column(name = "month_num", nullable = false)
+    private MonthKey month; // yyyymm
 
     @Column(nullable = false)
     @Builder.Default
@@ -0,0 +1,7 @@
+package com.expenze.exception;
+
+public class ArchiveCorruptedException extends RuntimeException {
+    public ArchiveCorruptedException(String message) {
+        super(message);
+    }
+}
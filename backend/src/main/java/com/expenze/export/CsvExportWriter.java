@@ -0,0 +1,100 @@
+package com.expenze.export;
+
+import com.expenze.util.MonthKey;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+
+/**
+ * One CSV table for all record types, told apart by the {@code type} column
+ * ({@code category}, {@code month}, {@code item}, {@code salary}); columns that do not
+ * apply to a type are left empty. Salaries carry their amount in {@code actual_amount}.
+ */
+class CsvExportWriter implements ExportWriter {
+
+    private static final String HEADER =
+            "type,month,category,name,planned_amount,actual_amount,is_paid,priority,notes,sort_order,is_active,archived\n";
+
+    private final Writer out;
+    private boolean headerWritten;
+
+    CsvExportWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void category(String name, Integer sortOrder, Integer isActive) throws IOException {
+        row("category", null, name, null, null, null, null, null, null, sortOrder, isActive, null);
+    }
+
+    @Override
+    public void month(MonthKey month, boolean archived) throws IOException {
+        row("month", month, null, null, null, null, null, null, null, null, null, archived ? 1 : 0);
+    }
+
+    @Override
+    public void item(MonthKey month, String category, String name, BigDecimal plannedAmount,
+            BigDecimal actualAmount, Integer isPaid, String priority, String notes) throws IOException {
+        row("item", month, category, name, plannedAmount, actualAmount, isPaid, priority, notes, null, null, null);
+    }
+
+    @Override
+    public void salary(MonthKey month, BigDecimal amount) throws IOException {
+        row("salary", month, null, null, null, amount, null, null, null, null, null, null);
+    }
+
+    private void row(String type, MonthKey month, String category, String name, BigDecimal planned,
+            BigDecimal actual, Integer isPaid, String priority, String notes, Integer sortOrder, Integer isActive,
+            Integer archived) throws IOException {
+        if (!headerWritten) {
+            out.write(HEADER);
+            headerWritten = true;
+        }
+        out.write(type);
+        field(month != null ? month.toString() : null);
+        field(category);
+        field(name);
+        field(planned != null ? planned.toPlainString() : null);
+        field(actual != null ? actual.toPlainString() : null);
+        field(isPaid != null ? isPaid.toString() : null);
+        field(priority);
+        field(notes);
+        field(sortOrder != null ? sortOrder.toString() : null);
+        field(isActive != null ? isActive.toString() : null);
+        field(archived != null ? archived.toString() : null);
+        out.write('\n');
+    }
+
+    private void field(String value) throws IOException {
+        out.write(',');
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        // Leading =, +, - or @ would be evaluated as a formula by spreadsheet apps
+        char first = value.charAt(0);
+        boolean formula = first == '=' || first == '+' || first == '-' || first == '@';
+        boolean quote = formula || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        if (formula && !isNumber(value)) {
+            out.write('\'');
+        }
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private static boolean isNumber(String value) {
+        for (int i = 1; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && c != '.') {
+                return false;
+            }
+        }
+        return value.length() > 1;
+    }
+}
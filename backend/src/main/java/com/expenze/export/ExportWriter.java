@@ -0,0 +1,23 @@
+package com.expenze.export;
+
+import com.expenze.util.MonthKey;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Writes export records one at a time, in the order they are produced: all categories
+ * first, then every month followed by its items and salary. Nothing is buffered beyond
+ * the underlying writer.
+ */
+public interface ExportWriter {
+
+    void category(String name, Integer sortOrder, Integer isActive) throws IOException;
+
+    void month(MonthKey month, boolean archived) throws IOException;
+
+    void item(MonthKey month, String category, String name, BigDecimal plannedAmount, BigDecimal actualAmount,
+            Integer isPaid, String priority, String notes) throws IOException;
+
+    void salary(MonthKey month, BigDecimal amount) throws IOException;
+}
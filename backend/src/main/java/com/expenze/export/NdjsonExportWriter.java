@@ -0,0 +1,104 @@
+package com.expenze.export;
+
+import com.expenze.util.MonthKey;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+
+/**
+ * One JSON object per line with a {@code type} field; field names match the API DTOs.
+ * Written straight through a streaming generator, without building objects per record.
+ */
+class NdjsonExportWriter implements ExportWriter {
+
+    // Lines are separated here, not by the generator's default root separator (a space)
+    private static final JsonFactory JSON = new JsonFactoryBuilder()
+            .rootValueSeparator((String) null)
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .disable(StreamWriteFeature.FLUSH_PASSED_TO_STREAM)
+            .build();
+
+    private final Writer out;
+    private final JsonGenerator json;
+
+    NdjsonExportWriter(Writer out) {
+        this.out = out;
+        try {
+            this.json = JSON.createGenerator(out);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create JSON generator", e);
+        }
+    }
+
+    @Override
+    public void category(String name, Integer sortOrder, Integer isActive) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("type", "category");
+        json.writeStringField("name", name);
+        writeNumber("sortOrder", sortOrder);
+        writeNumber("isActive", isActive);
+        end();
+    }
+
+    @Override
+    public void month(MonthKey month, boolean archived) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("type", "month");
+        json.writeStringField("monthKey", month.toString());
+        json.writeBooleanField("archived", archived);
+        end();
+    }
+
+    @Override
+    public void item(MonthKey month, String category, String name, BigDecimal plannedAmount,
+            BigDecimal actualAmount, Integer isPaid, String priority, String notes) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("type", "item");
+        json.writeStringField("monthKey", month.toString());
+        json.writeStringField("categoryName", category);
+        json.writeStringField("name", name);
+        writeNumber("plannedAmount", plannedAmount);
+        writeNumber("actualAmount", actualAmount);
+        writeNumber("isPaid", isPaid);
+        json.writeStringField("priority", priority);
+        json.writeStringField("notes", notes);
+        end();
+    }
+
+    @Override
+    public void salary(MonthKey month, BigDecimal amount) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("type", "salary");
+        json.writeStringField("monthKey", month.toString());
+        writeNumber("amount", amount);
+        end();
+    }
+
+    private void writeNumber(String field, BigDecimal value) throws IOException {
+        if (value == null) {
+            json.writeNullField(field);
+        } else {
+            json.writeNumberField(field, value);
+        }
+    }
+
+    private void writeNumber(String field, Integer value) throws IOException {
+        if (value == null) {
+            json.writeNullField(field);
+        } else {
+            json.writeNumberField(field, value);
+        }
+    }
+
+    private void end() throws IOException {
+        json.writeEndObject();
+        // Moves the generator's buffer into the writer only; the response is flushed elsewhere
+        json.flush();
+        out.write('\n');
+    }
+}
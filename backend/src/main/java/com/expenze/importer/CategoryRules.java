@@ -0,0 +1,120 @@
+package com.expenze.importer;
+
+import com.expenze.entity.Category;
+import com.expenze.entity.CategoryTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maps a statement description to one of the user's categories. In order:
+ * <ol>
+ * <li>a category template sub-option found in the description (longest wins); the item is
+ * then named after the sub-option, e.g. "Electricity" under Utilities</li>
+ * <li>a category name found in the description</li>
+ * <li>built-in merchant keywords for the default categories, used only if the user has that
+ * category</li>
+ * </ol>
+ * Needles match whole words only, and rules are tried in a fixed order, so a description
+ * always gets the same category. Anything else is imported without a category. Built once
+ * per import, matching is a scan over a few dozen lower-cased needles per row.
+ */
+class CategoryRules {
+
+    // Checked in this order, specific categories before catch-alls like Shopping ("store")
+    private static final Map<String, List<String>> KEYWORDS = new LinkedHashMap<>();
+
+    static {
+        KEYWORDS.put("Healthcare", List.of("pharmacy", "hospital", "clinic", "medical", "apollo", "doctor"));
+        KEYWORDS.put("Entertainment", List.of("netflix", "spotify", "prime video", "hotstar", "cinema", "movie",
+                "pvr"));
+        KEYWORDS.put("Food", List.of("swiggy", "zomato", "restaurant", "cafe", "pizza", "burger", "coffee"));
+        KEYWORDS.put("Groceries", List.of("grocery", "supermarket", "bigbasket", "dmart", "blinkit", "zepto",
+                "mart"));
+        KEYWORDS.put("Fuel", List.of("petrol", "diesel", "fuel", "shell", "hpcl", "bpcl", "indian oil",
+                "gas station"));
+        KEYWORDS.put("Utilities", List.of("electricity", "water bill", "broadband", "internet", "mobile",
+                "recharge", "gas bill", "airtel", "jio"));
+        KEYWORDS.put("Transport", List.of("uber", "ola", "metro", "railway", "irctc", "bus", "taxi", "parking",
+                "toll"));
+        KEYWORDS.put("Shopping", List.of("amazon", "flipkart", "myntra", "ajio", "store"));
+    }
+
+    private final List<Rule> rules = new ArrayList<>();
+
+    CategoryRules(List<Category> categories, List<CategoryTemplate> templates) {
+        Map<Long, Category> byId = new HashMap<>();
+        // Category order from the repository is unspecified; rules must not depend on it
+        Map<String, Category> byName = new TreeMap<>();
+        for (Category category : categories) {
+            if (category.getIsActive() != null && category.getIsActive() == 0) {
+                continue;
+            }
+            byId.put(category.getId(), category);
+            // Same name twice (case aside): the older category wins
+            byName.merge(category.getName().toLowerCase(Locale.ROOT), category,
+                    (a, b) -> a.getId() <= b.getId() ? a : b);
+        }
+
+        List<Rule> subOptions = new ArrayList<>();
+        for (CategoryTemplate template : templates) {
+            Category category = byId.get(template.getCategoryId());
+            if (category != null && template.getSubOption() != null && !template.getSubOption().isBlank()) {
+                subOptions.add(new Rule(template.getSubOption().trim().toLowerCase(Locale.ROOT),
+                        category.getId(), template.getSubOption().trim()));
+            }
+        }
+        subOptions.sort(Comparator.comparingInt((Rule r) -> r.needle.length()).reversed()
+                .thenComparing(Rule::needle));
+        rules.addAll(subOptions);
+
+        // Longer names first, so "Home Loan" wins over "Home"
+        byName.entrySet().stream()
+                .sorted(Comparator.comparingInt((Map.Entry<String, Category> e) -> e.getKey().length()).reversed())
+                .forEach(e -> rules.add(new Rule(e.getKey(), e.getValue().getId(), null)));
+        KEYWORDS.forEach((categoryName, keywords) -> {
+            Category category = byName.get(categoryName.toLowerCase(Locale.ROOT));
+            if (category != null) {
+                keywords.forEach(keyword -> rules.add(new Rule(keyword, category.getId(), null)));
+            }
+        });
+    }
+
+    /** First matching rule, or null when nothing matches. */
+    Match match(String description) {
+        String text = description.toLowerCase(Locale.ROOT);
+        for (Rule rule : rules) {
+            if (containsWord(text, rule.needle)) {
+                return new Match(rule.categoryId, rule.itemName);
+            }
+        }
+        return null;
+    }
+
+    // Whole words only: "ola" must not match "motorola", nor "bus" "business"
+    static boolean containsWord(String text, String needle) {
+        for (int i = text.indexOf(needle); i >= 0; i = text.indexOf(needle, i + 1)) {
+            int end = i + needle.length();
+            if ((i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)))
+                    && (end == text.length() || !Character.isLetterOrDigit(text.charAt(end)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param itemName name for the payment item, or null to use the statement description
+     */
+    record Match(Long categoryId, String itemName) {
+    }
+
+    private record Rule(String needle, Long categoryId, String itemName) {
+    }
+}
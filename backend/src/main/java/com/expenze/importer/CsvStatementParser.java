@@ -0,0 +1,239 @@
+package com.expenze.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Bank statement CSV with a header row. Columns are found by name, case-insensitively:
+ * <ul>
+ * <li>date: {@code date}, {@code transaction date}, {@code posting date}, {@code value date}</li>
+ * <li>description: {@code description}, {@code narration}, {@code details}, {@code memo},
+ * {@code payee}, {@code particulars}</li>
+ * <li>either a signed {@code amount} (negative is money out), or separate
+ * {@code debit}/{@code withdrawal} and {@code credit}/{@code deposit} columns</li>
+ * </ul>
+ * Quoted fields may contain separators, doubled quotes and line breaks. A quote still open
+ * after {@value #MAX_RECORD_LINES} lines or {@value #MAX_RECORD_CHARS} characters makes its
+ * record invalid, and reading resumes on the record's second line, so a stray quote costs one
+ * row rather than the rest of the file.
+ */
+class CsvStatementParser implements StatementParser {
+
+    private static final List<String> DATE_COLUMNS = List.of("date", "transaction date", "posting date",
+            "value date", "txn date");
+    private static final List<String> DESCRIPTION_COLUMNS = List.of("description", "narration", "details",
+            "memo", "payee", "particulars");
+    private static final List<String> AMOUNT_COLUMNS = List.of("amount", "transaction amount");
+    private static final List<String> DEBIT_COLUMNS = List.of("debit", "withdrawal", "withdrawal amt.", "debit amount");
+    private static final List<String> CREDIT_COLUMNS = List.of("credit", "deposit", "deposit amt.", "credit amount");
+
+    static final int MAX_RECORD_LINES = 10;
+    static final int MAX_RECORD_CHARS = 16 * 1024;
+
+    private final DateTimeFormatter dateFormat;
+
+    CsvStatementParser(DateTimeFormatter dateFormat) {
+        this.dateFormat = dateFormat;
+    }
+
+    @Override
+    public void parse(BufferedReader in, Sink sink) throws IOException {
+        Lines lines = new Lines(in);
+        List<String> header = readRecord(lines);
+        if (header == null) {
+            return;
+        }
+        int date = indexOf(header, DATE_COLUMNS);
+        int description = indexOf(header, DESCRIPTION_COLUMNS);
+        int amount = indexOf(header, AMOUNT_COLUMNS);
+        int debit = indexOf(header, DEBIT_COLUMNS);
+        int credit = indexOf(header, CREDIT_COLUMNS);
+        if (date < 0 || description < 0 || (amount < 0 && debit < 0 && credit < 0)) {
+            throw new IllegalArgumentException("CSV header needs date, description and amount (or debit/credit) "
+                    + "columns, found: " + header);
+        }
+
+        while (true) {
+            List<String> fields;
+            try {
+                fields = readRecord(lines);
+            } catch (UnterminatedQuoteException e) {
+                sink.invalid(e.line, e.getMessage());
+                continue;
+            }
+            if (fields == null) {
+                break;
+            }
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            try {
+                LocalDate day = LocalDate.parse(field(fields, date).trim(), dateFormat);
+                BigDecimal value;
+                if (amount >= 0) {
+                    value = parseAmount(field(fields, amount));
+                } else {
+                    // Money out is negative, as with a signed amount column
+                    value = parseAmount(field(fields, credit)).subtract(parseAmount(field(fields, debit)));
+                }
+                sink.row(new StatementRow(day, value, field(fields, description).trim()));
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                sink.invalid(lines.number, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Parses amounts as banks print them: currency symbols, thousands separators,
+     * {@code (12.50)} or a trailing {@code DR} for debits, {@code CR} for credits.
+     */
+    static BigDecimal parseAmount(String raw) {
+        if (raw == null) {
+            return BigDecimal.ZERO;
+        }
+        String value = raw.trim().toUpperCase(Locale.ROOT);
+        if (value.isEmpty() || value.equals("-")) {
+            return BigDecimal.ZERO;
+        }
+        boolean negative = false;
+        if (value.startsWith("(") && value.endsWith(")")) {
+            negative = true;
+            value = value.substring(1, value.length() - 1);
+        }
+        if (value.endsWith("DR")) {
+            negative = true;
+            value = value.substring(0, value.length() - 2);
+        } else if (value.endsWith("CR")) {
+            value = value.substring(0, value.length() - 2);
+        }
+        StringBuilder digits = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c >= '0' && c <= '9') || c == '.') {
+                digits.append(c);
+            } else if (c == '-') {
+                negative = !negative;
+            }
+        }
+        if (digits.isEmpty()) {
+            throw new IllegalArgumentException("Not an amount: " + raw);
+        }
+        BigDecimal amount = new BigDecimal(digits.toString());
+        return negative ? amount.negate() : amount;
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index >= 0 && index < fields.size() ? fields.get(index) : "";
+    }
+
+    private static int indexOf(List<String> header, List<String> names) {
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).trim().toLowerCase(Locale.ROOT);
+            if (i == 0 && column.startsWith("\uFEFF")) {
+                column = column.substring(1);
+            }
+            if (names.contains(column)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // One CSV record, which may span lines inside quotes; null at end of input
+    private static List<String> readRecord(Lines lines) throws IOException {
+        String line = lines.next();
+        if (line == null) {
+            return null;
+        }
+        long first = lines.number;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        // Lines read past the first, handed back if the quote never closes
+        List<String> continuation = new ArrayList<>();
+        int chars = line.length();
+        boolean quoted = false;
+        while (true) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"') {
+                        if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (!quoted) {
+                break;
+            }
+            line = continuation.size() + 1 < MAX_RECORD_LINES && chars < MAX_RECORD_CHARS ? lines.next() : null;
+            if (line == null) {
+                lines.pushBack(continuation);
+                throw new UnterminatedQuoteException(first);
+            }
+            continuation.add(line);
+            chars += line.length();
+            field.append('\n');
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // Line source with 1-based numbering that can take back lines read ahead
+    private static final class Lines {
+
+        private final BufferedReader in;
+        private final Deque<String> pushedBack = new ArrayDeque<>();
+        private long number;
+
+        Lines(BufferedReader in) {
+            this.in = in;
+        }
+
+        String next() throws IOException {
+            String line = pushedBack.isEmpty() ? in.readLine() : pushedBack.pollFirst();
+            if (line != null) {
+                number++;
+            }
+            return line;
+        }
+
+        void pushBack(List<String> read) {
+            for (int i = read.size() - 1; i >= 0; i--) {
+                pushedBack.addFirst(read.get(i));
+            }
+            number -= read.size();
+        }
+    }
+
+    private static final class UnterminatedQuoteException extends IllegalArgumentException {
+
+        private final long line;
+
+        UnterminatedQuoteException(long line) {
+            super("Quoted field is not closed");
+            this.line = line;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.expenze.importer;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Supported statement formats.
+ */
+public enum ImportFormat {
+
+    CSV,
+    OFX;
+
+    public static ImportFormat of(String format, String filename) {
+        if (format != null && !format.isBlank()) {
+            for (ImportFormat value : values()) {
+                if (value.name().equalsIgnoreCase(format)) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported import format: " + format);
+        }
+        String name = filename != null ? filename.toLowerCase() : "";
+        return name.endsWith(".ofx") || name.endsWith(".qfx") ? OFX : CSV;
+    }
+
+    StatementParser newParser(DateTimeFormatter csvDateFormat) {
+        return this == OFX ? new OfxStatementParser() : new CsvStatementParser(csvDateFormat);
+    }
+}
@@ -0,0 +1,78 @@
+package com.expenze.importer;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one statement import. Written by the importing thread, read by progress
+ * requests at any time, so every field is safe to read while the import runs.
+ */
+@Getter
+public class ImportJob {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private static final int MAX_ERRORS = 20;
+
+    private final String id = UUID.randomUUID().toString();
+    private final Long userId;
+    private final String filename;
+    private final ImportFormat format;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private volatile LocalDateTime finishedAt;
+    private volatile Status status = Status.RUNNING;
+
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong skippedCredits = new AtomicLong();
+    private final AtomicLong skippedArchived = new AtomicLong();
+    private final AtomicLong invalid = new AtomicLong();
+    // Guarded by itself; only the first few are kept
+    private final List<String> errors = new ArrayList<>();
+
+    public ImportJob(Long userId, String filename, ImportFormat format) {
+        this.userId = userId;
+        this.filename = filename;
+        this.format = format;
+    }
+
+    void error(String message) {
+        synchronized (errors) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(message);
+            }
+        }
+    }
+
+    public List<String> getErrors() {
+        synchronized (errors) {
+            return List.copyOf(errors);
+        }
+    }
+
+    public void complete() {
+        finish(Status.COMPLETED);
+    }
+
+    public void fail(String message) {
+        error(message);
+        finish(Status.FAILED);
+    }
+
+    public boolean isFinished() {
+        return status != Status.RUNNING;
+    }
+
+    private void finish(Status status) {
+        this.finishedAt = LocalDateTime.now();
+        this.status = status;
+    }
+}
@@ -0,0 +1,71 @@
+package com.expenze.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * OFX/QFX statements, in both the SGML (OFX 1.x, unclosed tags) and XML (OFX 2.x) forms.
+ * Only {@code <STMTTRN>} blocks are read: DTPOSTED, TRNAMT, NAME and MEMO. TRNAMT is
+ * already signed, negative for money out.
+ */
+class OfxStatementParser implements StatementParser {
+
+    private static final Pattern TAG = Pattern.compile("<(/?[A-Z0-9.]+)>([^<\\r\\n]*)");
+
+    @Override
+    public void parse(BufferedReader in, Sink sink) throws IOException {
+        Map<String, String> transaction = null;
+        long blockStart = 0;
+        long lineNumber = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            Matcher matcher = TAG.matcher(line.toUpperCase(Locale.ROOT));
+            // Tag names are matched upper-cased, values are taken from the original line
+            while (matcher.find()) {
+                String tag = matcher.group(1);
+                if (tag.equals("STMTTRN")) {
+                    transaction = new HashMap<>();
+                    blockStart = lineNumber;
+                } else if (tag.equals("/STMTTRN")) {
+                    if (transaction != null) {
+                        emit(transaction, blockStart, sink);
+                        transaction = null;
+                    }
+                } else if (transaction != null && tag.charAt(0) != '/') {
+                    String value = line.substring(matcher.start(2), matcher.end(2)).trim();
+                    if (!value.isEmpty()) {
+                        transaction.put(tag, value);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void emit(Map<String, String> transaction, long line, StatementParser.Sink sink) {
+        String posted = transaction.get("DTPOSTED");
+        String amount = transaction.get("TRNAMT");
+        if (posted == null || posted.length() < 8 || amount == null) {
+            sink.invalid(line, "Transaction without DTPOSTED or TRNAMT");
+            return;
+        }
+        try {
+            LocalDate date = LocalDate.parse(posted.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE);
+            BigDecimal value = new BigDecimal(amount.replace(",", "."));
+            String name = transaction.getOrDefault("NAME", "");
+            String memo = transaction.getOrDefault("MEMO", "");
+            String description = name.isEmpty() ? memo : memo.isEmpty() || memo.equals(name) ? name : name + " " + memo;
+            sink.row(new StatementRow(date, value, description));
+        } catch (RuntimeException e) {
+            sink.invalid(line, e.getMessage());
+        }
+    }
+}
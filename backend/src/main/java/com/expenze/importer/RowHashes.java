@@ -0,0 +1,39 @@
+package com.expenze.importer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Import hashes of one statement's rows: SHA-256 of (date, amount, normalized description,
+ * occurrence). Identical rows are told apart by their occurrence, counted over the whole
+ * file since rows need not be grouped by date, so re-importing the same statement yields
+ * the same hashes. Holds one counter per distinct row, bounded by the upload size.
+ */
+class RowHashes {
+
+    private final MessageDigest sha256 = newSha256();
+    private final Map<String, Integer> occurrences = new HashMap<>();
+
+    String next(LocalDate date, BigDecimal amount, String description) {
+        String normalized = description.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        String key = date + "|" + amount.stripTrailingZeros().toPlainString() + "|" + normalized;
+        int occurrence = occurrences.merge(key, 1, Integer::sum);
+        byte[] digest = sha256.digest((key + "|" + occurrence).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest);
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
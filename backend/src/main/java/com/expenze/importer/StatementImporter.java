@@ -0,0 +1,185 @@
+package com.expenze.importer;
+
+import com.expenze.cache.MonthPlanResponseCache;
+import com.expenze.db.DbPool;
+import com.expenze.db.Workload;
+import com.expenze.job.PaymentItemPartitionJob;
+import com.expenze.repository.CategoryRepository;
+import com.expenze.repository.CategoryTemplateRepository;
+import com.expenze.util.MonthKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes a bank statement into payment items as paid expenses.
+ *
+ * The statement is parsed as a stream and written in batches, each one multi-row
+ * {@code INSERT ... ON CONFLICT DO NOTHING} in its own transaction, so memory stays flat
+ * whatever the file size and progress is visible while it runs. Every row carries a hash of
+ * (date, amount, description, occurrence on that day); importing an overlapping statement
+ * again skips rows that are already there. Credits are not expenses and are skipped, as are
+ * rows falling into archived months. Month plans and yearly partitions are created as
+ * months are first seen.
+ */
+@Slf4j
+@Component
+@DbPool(Workload.BACKGROUND)
+public class StatementImporter {
+
+    // Bind parameters per row; PostgreSQL allows 32767 per statement
+    private static final int COLUMNS = 9;
+    private static final int MAX_BATCH = 32767 / COLUMNS;
+    private static final int MAX_NAME_LENGTH = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CategoryRepository categoryRepository;
+    private final CategoryTemplateRepository categoryTemplateRepository;
+    private final PaymentItemPartitionJob partitionJob;
+    private final MonthPlanResponseCache monthPlanCache;
+    private final int batchSize;
+
+    public StatementImporter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            CategoryRepository categoryRepository, CategoryTemplateRepository categoryTemplateRepository,
+            PaymentItemPartitionJob partitionJob, MonthPlanResponseCache monthPlanCache,
+            @Value("${expenze.import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.categoryRepository = categoryRepository;
+        this.categoryTemplateRepository = categoryTemplateRepository;
+        this.partitionJob = partitionJob;
+        this.monthPlanCache = monthPlanCache;
+        this.batchSize = Math.max(1, Math.min(batchSize, MAX_BATCH));
+    }
+
+    public void importFile(ImportJob job, Path file, DateTimeFormatter csvDateFormat) throws IOException {
+        Long userId = job.getUserId();
+        CategoryRules rules = new CategoryRules(categoryRepository.findByUserId(userId),
+                categoryTemplateRepository.findByUserIdAndIsActiveOrderBySortOrderAsc(userId, 1));
+        Batch batch = new Batch(job, rules);
+        // A decoding reader rather than Files.newBufferedReader, which fails on the first
+        // byte that is not UTF-8; statements exported as Latin-1 keep their rows
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8), 64 * 1024)) {
+            job.getFormat().newParser(csvDateFormat).parse(in, batch);
+        }
+        batch.flush();
+    }
+
+    private final class Batch implements StatementParser.Sink {
+
+        private final ImportJob job;
+        private final CategoryRules rules;
+        private final RowHashes hashes = new RowHashes();
+        private final List<Object[]> rows = new ArrayList<>();
+        private final Set<MonthKey> touched = new HashSet<>();
+        // Bounded by the months the statement spans
+        private final Map<MonthKey, MonthTarget> months = new HashMap<>();
+        private final Set<Integer> years = new HashSet<>();
+
+        Batch(ImportJob job, CategoryRules rules) {
+            this.job = job;
+            this.rules = rules;
+        }
+
+        @Override
+        public void row(StatementRow row) {
+            job.getRowsRead().incrementAndGet();
+            if (row.amount().signum() >= 0) {
+                job.getSkippedCredits().incrementAndGet();
+                return;
+            }
+            MonthKey month = MonthKey.of(row.date());
+            MonthTarget target = months.computeIfAbsent(month, this::resolve);
+            if (target.archived) {
+                job.getSkippedArchived().incrementAndGet();
+                return;
+            }
+
+            String description = row.description().isBlank() ? "Imported transaction" : row.description();
+            BigDecimal amount = row.amount().negate();
+            CategoryRules.Match match = rules.match(description);
+            String name = match != null && match.itemName() != null ? match.itemName() : description;
+            String notes = name.equals(description) ? null : description;
+            rows.add(new Object[] { job.getUserId(), target.planId, month.value(),
+                    match != null ? match.categoryId() : null, truncate(name), amount, amount, notes,
+                    hashes.next(row.date(), amount, description) });
+            touched.add(month);
+            if (rows.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        @Override
+        public void invalid(long line, String reason) {
+            job.getRowsRead().incrementAndGet();
+            job.getInvalid().incrementAndGet();
+            job.error("Line " + line + ": " + reason);
+        }
+
+        void flush() {
+            if (rows.isEmpty()) {
+                return;
+            }
+            StringBuilder sql = new StringBuilder("INSERT INTO payment_items (user_id, month_plan_id, month_num, "
+                    + "category_id, name, planned_amount, actual_amount, is_paid, notes, priority, import_hash) VALUES ");
+            Object[] args = new Object[rows.size() * COLUMNS];
+            for (int i = 0; i < rows.size(); i++) {
+                sql.append(i == 0 ? "" : ",").append("(?,?,?,?,?,?,?,1,?,'MEDIUM',?)");
+                Object[] row = rows.get(i);
+                System.arraycopy(row, 0, args, i * COLUMNS, COLUMNS);
+            }
+            sql.append(" ON CONFLICT (user_id, month_num, import_hash) WHERE import_hash IS NOT NULL DO NOTHING");
+
+            int batch = rows.size();
+            Integer inserted = transactionTemplate.execute(status -> {
+                int count = jdbcTemplate.update(sql.toString(), args);
+                touched.forEach(month -> monthPlanCache.invalidate(job.getUserId(), month));
+                return count;
+            });
+            int count = inserted != null ? inserted : 0;
+            job.getImported().addAndGet(count);
+            job.getDuplicates().addAndGet(batch - count);
+            rows.clear();
+            touched.clear();
+        }
+
+        private MonthTarget resolve(MonthKey month) {
+            if (years.add(month.year())) {
+                partitionJob.ensurePartitions(month.year(), month.year());
+            }
+            jdbcTemplate.update("INSERT INTO month_plans (user_id, month_num) VALUES (?, ?) "
+                    + "ON CONFLICT (user_id, month_num) DO NOTHING", job.getUserId(), month.value());
+            return jdbcTemplate.queryForObject(
+                    "SELECT id, archived_at FROM month_plans WHERE user_id = ? AND month_num = ?",
+                    (rs, i) -> new MonthTarget(rs.getLong("id"), rs.getObject("archived_at", Timestamp.class) != null),
+                    job.getUserId(), month.value());
+        }
+    }
+
+    private record MonthTarget(long planId, boolean archived) {
+    }
+
+    private static String truncate(String value) {
+        return value.length() <= MAX_NAME_LENGTH ? value : value.substring(0, MAX_NAME_LENGTH);
+    }
+}
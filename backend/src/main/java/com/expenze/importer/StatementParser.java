@@ -0,0 +1,21 @@
+package com.expenze.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Reads a statement line by line and hands each transaction to the sink as soon as it is
+ * complete, so only one record is ever held in memory.
+ */
+interface StatementParser {
+
+    void parse(BufferedReader in, Sink sink) throws IOException;
+
+    interface Sink {
+
+        void row(StatementRow row);
+
+        /** A record that could not be read; {@code line} is 1-based. */
+        void invalid(long line, String reason);
+    }
+}
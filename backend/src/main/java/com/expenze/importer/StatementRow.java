@@ -0,0 +1,10 @@
+package com.expenze.importer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One transaction of a bank statement. Negative amounts are money going out.
+ */
+record StatementRow(LocalDate date, BigDecimal amount, String description) {
+}
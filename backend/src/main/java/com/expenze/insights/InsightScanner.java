@@ -0,0 +1,210 @@
+package com.expenze.insights;
+
+import com.expenze.db.DbPool;
+import com.expenze.db.Workload;
+import com.expenze.util.Money;
+import com.expenze.util.MonthKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Flags month-category totals that are far above the same category's trailing average.
+ *
+ * One chunk is a range of user ids. Its month-category totals (live items and archived
+ * rollups) are streamed in (user, category, month) order through a forward-only cursor and
+ * each series is evaluated when the next one starts, so memory holds one series at a time
+ * whatever the chunk size. For each evaluated month the baseline is the
+ * {@code expenze.insights.baseline-months} months before it, empty months counting as zero.
+ * A month is flagged when it is at least {@code min-sigma} standard deviations and
+ * {@code min-increase} above the baseline mean, and the baseline has spending in at least
+ * {@code min-active-months} months. A baseline that never varied has no standard deviation;
+ * there clearing {@code min-increase} is enough, and the stored score is the column maximum.
+ */
+@Component
+@DbPool(Workload.BACKGROUND)
+public class InsightScanner {
+
+    static final String KIND_SPENDING_SPIKE = "SPENDING_SPIKE";
+
+    // Archived months come from their rollups; a month can have both when an item was
+    // added while it was being archived, so equal keys are summed in the pass
+    private static final String CELLS_SQL = """
+            SELECT c.user_id, c.category_id, cat.name, c.month_num, c.actual
+            FROM (
+                SELECT user_id, category_id, month_num, SUM(actual_amount) AS actual
+                FROM payment_items
+                WHERE user_id BETWEEN ? AND ? AND month_num BETWEEN ? AND ? AND category_id IS NOT NULL
+                GROUP BY user_id, category_id, month_num
+                UNION ALL
+                SELECT user_id, category_id, month_num, actual_amount
+                FROM month_category_rollups
+                WHERE user_id BETWEEN ? AND ? AND month_num BETWEEN ? AND ?
+                  AND category_id IS NOT NULL AND item_count > 0
+            ) c
+            JOIN categories cat ON cat.id = c.category_id
+            ORDER BY c.user_id, c.category_id, c.month_num""";
+
+    private static final String DELETE_SQL = "DELETE FROM insights "
+            + "WHERE user_id BETWEEN ? AND ? AND month_num BETWEEN ? AND ? AND kind = ?";
+
+    private static final String INSERT_SQL = "INSERT INTO insights (user_id, month_num, category_id, kind, "
+            + "actual_amount, baseline_mean, baseline_stddev, z_score, message) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Largest value of insights.z_score, NUMERIC(8, 2)
+    private static final double MAX_Z_SCORE = 999_999.99;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int baselineMonths;
+    private final double minSigma;
+    private final long minIncrease;
+    private final int minActiveMonths;
+    private final int fetchSize;
+
+    public InsightScanner(JdbcTemplate jdbcTemplate,
+            @Value("${expenze.insights.baseline-months:6}") int baselineMonths,
+            @Value("${expenze.insights.min-sigma:2.0}") double minSigma,
+            @Value("${expenze.insights.min-increase:500.00}") BigDecimal minIncrease,
+            @Value("${expenze.insights.min-active-months:3}") int minActiveMonths,
+            @Value("${expenze.insights.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.baselineMonths = baselineMonths;
+        this.minSigma = minSigma;
+        this.minIncrease = Money.toMinorUnits(minIncrease);
+        this.minActiveMonths = minActiveMonths;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Re-evaluates months [first, last] for users with ids in [fromUser, toUser], replacing
+     * the chunk's previous spike insights for those months. One transaction per chunk.
+     */
+    @Transactional
+    public ChunkResult scanChunk(long fromUser, long toUser, MonthKey first, MonthKey last) {
+        MonthKey baselineStart = first.minusMonths(baselineMonths);
+        Pass pass = new Pass(baselineStart, first, last);
+
+        PreparedStatementCreator query = connection -> {
+            PreparedStatement ps = connection.prepareStatement(CELLS_SQL, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int part = 0, i = 1; part < 2; part++) {
+                ps.setLong(i++, fromUser);
+                ps.setLong(i++, toUser);
+                ps.setInt(i++, baselineStart.value());
+                ps.setInt(i++, last.value());
+            }
+            return ps;
+        };
+        jdbcTemplate.query(query, rs -> {
+            pass.cell(rs.getLong(1), rs.getLong(2), rs.getString(3), new MonthKey(rs.getInt(4)),
+                    Money.toMinorUnits(rs.getBigDecimal(5)));
+        });
+        pass.finish();
+
+        jdbcTemplate.update(DELETE_SQL, fromUser, toUser, first.value(), last.value(), KIND_SPENDING_SPIKE);
+        if (!pass.flagged.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, pass.flagged);
+        }
+        return new ChunkResult(pass.users, pass.cells, pass.flagged.size());
+    }
+
+    public record ChunkResult(long users, long cells, long flagged) {
+    }
+
+    private final class Pass {
+
+        private final MonthKey baselineStart;
+        private final int firstOffset;
+        // One series: the current (user, category) totals per month from baselineStart
+        private final long[] series;
+        private final List<Object[]> flagged = new ArrayList<>();
+        private long userId = -1;
+        private long categoryId = -1;
+        private String categoryName;
+        private long users;
+        private long cells;
+
+        Pass(MonthKey baselineStart, MonthKey first, MonthKey last) {
+            this.baselineStart = baselineStart;
+            this.firstOffset = baselineStart.monthsUntil(first);
+            this.series = new long[baselineStart.monthsUntil(last) + 1];
+        }
+
+        void cell(long user, long category, String name, MonthKey month, long actual) {
+            cells++;
+            if (user != userId || category != categoryId) {
+                finish();
+                if (user != userId) {
+                    users++;
+                }
+                userId = user;
+                categoryId = category;
+                categoryName = name;
+                Arrays.fill(series, 0L);
+            }
+            series[baselineStart.monthsUntil(month)] += actual;
+        }
+
+        // Evaluates the current series
+        void finish() {
+            if (userId < 0) {
+                return;
+            }
+            for (int offset = firstOffset; offset < series.length; offset++) {
+                long sum = 0;
+                int active = 0;
+                for (int i = offset - baselineMonths; i < offset; i++) {
+                    sum += series[i];
+                    if (series[i] != 0) {
+                        active++;
+                    }
+                }
+                if (active < minActiveMonths) {
+                    continue;
+                }
+                double mean = (double) sum / baselineMonths;
+                double variance = 0;
+                for (int i = offset - baselineMonths; i < offset; i++) {
+                    double d = series[i] - mean;
+                    variance += d * d;
+                }
+                double stddev = Math.sqrt(variance / baselineMonths);
+                long actual = series[offset];
+                if (actual - mean < minIncrease) {
+                    continue;
+                }
+                // A flat baseline (same amount every month) has no spread, so any rise clearing
+                // min-increase is a spike; the score is capped at what the column can hold
+                double sigma = stddev > 0 ? Math.min((actual - mean) / stddev, MAX_Z_SCORE) : MAX_Z_SCORE;
+                if (sigma < minSigma) {
+                    continue;
+                }
+                MonthKey month = baselineStart.plusMonths(offset);
+                String message = stddev > 0
+                        ? String.format(Locale.ROOT, "%s is %.1f\u03c3 above your %d-month average",
+                                categoryName, sigma, baselineMonths)
+                        : String.format(Locale.ROOT, "%s is above your %d-month average, which had not changed",
+                                categoryName, baselineMonths);
+                flagged.add(new Object[] { userId, month.value(), categoryId, KIND_SPENDING_SPIKE,
+                        Money.fromMinorUnits(actual), minorUnits(mean), minorUnits(stddev),
+                        BigDecimal.valueOf(sigma).setScale(2, RoundingMode.HALF_UP), message });
+            }
+        }
+
+        private BigDecimal minorUnits(double value) {
+            return BigDecimal.valueOf(value).setScale(0, RoundingMode.HALF_UP).movePointLeft(Money.SCALE);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.expenze.job;
+
+import com.expenze.db.DbPool;
+import com.expenze.db.Workload;
+import com.expenze.service.MonthArchiveService;
+import com.expenze.util.TraceIds;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Nightly move of closed months older than the archival horizon out of payment_items,
+ * writing their per-category rollups as they go. Off by default: the archived rows then
+ * exist only under {@code expenze.archive.dir}, which must be persistent storage.
+ */
+@Slf4j
+@Component
+@DbPool(Workload.BACKGROUND)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "expenze.archive.enabled", havingValue = "true")
+public class MonthArchivalJob {
+
+    private static final int MAX_BATCHES_PER_RUN = 50;
+
+    private final MonthArchiveService monthArchiveService;
+
+    @Scheduled(cron = "${expenze.archive.cron:0 30 2 * * *}")
+    public void run() {
+        // Scheduled runs get their own trace id so their log lines can be grouped
+        MDC.put("traceId", TraceIds.newTraceId());
+        try {
+            // Months archived before rollups existed; a no-op once they are all done
+            for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+                if (monthArchiveService.rollUpArchivedMonths() == 0)
+                    break;
+            }
+
+            // Months archived before item id ranges were recorded
+            for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+                if (monthArchiveService.indexArchivedMonths() == 0)
+                    break;
+            }
+
+            int total = 0;
+            for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+                int archived = monthArchiveService.archiveClosedMonths();
+                total += archived;
+                if (archived == 0)
+                    break;
+            }
+            log.info("Month archival run finished: {} months archived", total);
+        } finally {
+            MDC.remove("traceId");
+        }
+    }
+}
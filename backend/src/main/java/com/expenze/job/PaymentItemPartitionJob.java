@@ -0,0 +1,80 @@
+package com.expenze.job;
+
+import com.expenze.db.DbPool;
+import com.expenze.db.Workload;
+import com.expenze.util.TraceIds;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Creates yearly payment_items partitions ahead of time so new months never fall into
+ * the default partition. Runs once on startup and then monthly.
+ */
+@Slf4j
+@Component
+@DbPool(Workload.BACKGROUND)
+@RequiredArgsConstructor
+public class PaymentItemPartitionJob {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${expenze.partitions.years-ahead:1}")
+    private int yearsAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        ensurePartitions();
+    }
+
+    @Scheduled(cron = "${expenze.partitions.cron:0 0 3 1 * *}")
+    public void ensurePartitions() {
+        MDC.put("traceId", TraceIds.newTraceId());
+        try {
+            int currentYear = LocalDate.now().getYear();
+            ensurePartitions(currentYear, currentYear + yearsAhead);
+            warnIfDefaultPartitionUsed();
+        } finally {
+            MDC.remove("traceId");
+        }
+    }
+
+    // Inclusive year range; used directly by bulk loaders writing historic months
+    public void ensurePartitions(int fromYear, int toYear) {
+        for (int year = fromYear; year <= toYear; year++) {
+            createYearPartition(year);
+        }
+    }
+
+    private void createYearPartition(int year) {
+        String sql = String.format(
+                "CREATE TABLE IF NOT EXISTS payment_items_y%d PARTITION OF payment_items "
+                        + "FOR VALUES FROM (%d) TO (%d)",
+                year, year * 100 + 1, (year + 1) * 100 + 1);
+        try {
+            jdbcTemplate.execute(sql);
+            log.debug("Ensured payment_items partition for year {}", year);
+        } catch (DataAccessException e) {
+            // Typically another instance created it concurrently, or the default partition
+            // already holds rows for that year and has to be split manually
+            log.warn("Could not create payment_items partition for year {}: {}", year, e.getMessage());
+        }
+    }
+
+    private void warnIfDefaultPartitionUsed() {
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT 1 FROM payment_items_default LIMIT 1) t", Integer.class);
+        if (rows != null && rows > 0) {
+            log.warn("payment_items_default contains rows; create the missing yearly partitions to restore pruning");
+        }
+    }
+}
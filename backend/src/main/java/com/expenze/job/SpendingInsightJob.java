@@ -0,0 +1,193 @@
+package com.expenze.job;
+
+import com.expenze.db.DbPool;
+import com.expenze.db.Workload;
+import com.expenze.insights.InsightScanner;
+import com.expenze.insights.InsightScanner.ChunkResult;
+import com.expenze.util.MonthKey;
+import com.expenze.util.TraceIds;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Nightly spending anomaly scan, incremental from a month watermark.
+ *
+ * Each run evaluates the closed months after the watermark (the previous month at most), in
+ * user id chunks of {@code expenze.insights.chunk-size} scanned {@code parallelism} at a time.
+ * The watermark only advances when every chunk succeeded, so a failed run is retried whole
+ * the next night; chunks replace their own insights, which makes a retry idempotent.
+ */
+@Slf4j
+@Component
+@DbPool(Workload.BACKGROUND)
+@ConditionalOnProperty(name = "expenze.insights.enabled", havingValue = "true", matchIfMissing = true)
+public class SpendingInsightJob {
+
+    static final String JOB_NAME = "spending-insights";
+
+    private static final String WATERMARK_SQL = "SELECT month_num FROM job_watermarks WHERE job_name = ?";
+
+    private static final String ADVANCE_SQL = """
+            INSERT INTO job_watermarks (job_name, month_num, updated_at) VALUES (?, ?, CURRENT_TIMESTAMP)
+            ON CONFLICT (job_name) DO UPDATE SET month_num = EXCLUDED.month_num, updated_at = EXCLUDED.updated_at""";
+
+    private final InsightScanner scanner;
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+    private final int parallelism;
+    private final int initialLookback;
+    private final int maxMonthsPerRun;
+    private final Counter usersScanned;
+    private final Counter cellsScanned;
+    private final Counter insightsFlagged;
+    private final Timer runTimer;
+
+    // Last run, for the gauges
+    private volatile double usersPerSecond;
+    private volatile MonthKey watermark;
+
+    public SpendingInsightJob(InsightScanner scanner, JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+            @Value("${expenze.insights.chunk-size:500}") int chunkSize,
+            @Value("${expenze.insights.parallelism:2}") int parallelism,
+            @Value("${expenze.insights.initial-lookback-months:1}") int initialLookback,
+            @Value("${expenze.insights.max-months-per-run:12}") int maxMonthsPerRun) {
+        this.scanner = scanner;
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.parallelism = Math.max(1, parallelism);
+        this.initialLookback = Math.max(1, initialLookback);
+        this.maxMonthsPerRun = Math.max(1, maxMonthsPerRun);
+        this.usersScanned = Counter.builder("expenze.insights.users").register(meterRegistry);
+        this.cellsScanned = Counter.builder("expenze.insights.cells")
+                .description("Month-category totals read by the insight scan")
+                .register(meterRegistry);
+        this.insightsFlagged = Counter.builder("expenze.insights.flagged").register(meterRegistry);
+        this.runTimer = Timer.builder("expenze.insights.run").register(meterRegistry);
+        Gauge.builder("expenze.insights.throughput", this, job -> job.usersPerSecond)
+                .description("Users scanned per second by the last run")
+                .register(meterRegistry);
+        Gauge.builder("expenze.insights.watermark.lag", this, SpendingInsightJob::getLagMonths)
+                .description("Closed months not yet evaluated")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${expenze.insights.cron:0 30 3 * * *}")
+    public void run() {
+        // Scheduled runs get their own trace id so their log lines can be grouped
+        String traceId = TraceIds.newTraceId();
+        MDC.put("traceId", traceId);
+        try {
+            runTimer.record(() -> scan(traceId));
+        } finally {
+            MDC.remove("traceId");
+        }
+    }
+
+    public double getLagMonths() {
+        MonthKey current = watermark;
+        return current == null ? 0 : Math.max(0, current.monthsUntil(lastClosedMonth()));
+    }
+
+    private void scan(String traceId) {
+        MonthKey lastClosed = lastClosedMonth();
+        List<Integer> stored = jdbcTemplate.queryForList(WATERMARK_SQL, Integer.class, JOB_NAME);
+        MonthKey from = stored.isEmpty() ? lastClosed.minusMonths(initialLookback) : new MonthKey(stored.get(0));
+        watermark = from;
+        if (from.compareTo(lastClosed) >= 0) {
+            log.info("Spending insights up to date at {}", from);
+            return;
+        }
+        MonthKey first = from.plusMonths(1);
+        MonthKey last = first.monthsUntil(lastClosed) >= maxMonthsPerRun
+                ? first.plusMonths(maxMonthsPerRun - 1) : lastClosed;
+
+        Map<String, Object> bounds = jdbcTemplate.queryForMap("SELECT MIN(id) AS lo, MAX(id) AS hi FROM users");
+        if (bounds.get("lo") == null) {
+            advance(last);
+            return;
+        }
+        long lo = ((Number) bounds.get("lo")).longValue();
+        long hi = ((Number) bounds.get("hi")).longValue();
+
+        long started = System.nanoTime();
+        int failures = 0;
+        long users = 0;
+        long flagged = 0;
+        // Chunks run on their own threads, so each gets the scanner's pool through its proxy
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "insight-scan");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<ChunkResult>> chunks = new ArrayList<>();
+            for (long start = lo; start <= hi; start += chunkSize) {
+                long chunkStart = start;
+                long chunkEnd = Math.min(hi, start + chunkSize - 1);
+                chunks.add(pool.submit(() -> {
+                    MDC.put("traceId", traceId);
+                    try {
+                        return scanner.scanChunk(chunkStart, chunkEnd, first, last);
+                    } finally {
+                        MDC.remove("traceId");
+                    }
+                }));
+            }
+            for (Future<ChunkResult> chunk : chunks) {
+                try {
+                    ChunkResult result = chunk.get();
+                    users += result.users();
+                    flagged += result.flagged();
+                    usersScanned.increment(result.users());
+                    cellsScanned.increment(result.cells());
+                    insightsFlagged.increment(result.flagged());
+                } catch (ExecutionException e) {
+                    failures++;
+                    log.error("Spending insight chunk failed", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            pool.shutdownNow();
+        }
+
+        double seconds = Math.max(1e-3, (System.nanoTime() - started) / 1e9);
+        usersPerSecond = users / seconds;
+        if (failures > 0) {
+            log.warn("Spending insights {}..{}: {} chunks failed, watermark stays at {}", first, last,
+                    failures, from);
+            return;
+        }
+        advance(last);
+        log.info("Spending insights {}..{}: {} users, {} flagged in {} s", first, last, users, flagged,
+                String.format("%.1f", seconds));
+    }
+
+    private void advance(MonthKey month) {
+        jdbcTemplate.update(ADVANCE_SQL, JOB_NAME, month.value());
+        watermark = month;
+    }
+
+    private static MonthKey lastClosedMonth() {
+        return MonthKey.now().minusMonths(1);
+    }
+}
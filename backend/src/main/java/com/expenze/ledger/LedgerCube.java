@@ -0,0 +1,141 @@
+package com.expenze.ledger;
+
+import com.expenze.util.MonthKey;
+
+import java.util.Arrays;
+
+/**
+ * A user's payment item totals per (month, category), held as primitive columns.
+ *
+ * Every {@link Column} is one {@code long[]} of {@code months * categories} cells, indexed by
+ * month offset from {@link #firstMonth()} and category ordinal; amounts are minor units.
+ * Ordinal 0 collects items without a category. Immutable once built, so readers need no
+ * locking; a write is reflected by building a new cube. Only months whose items live in
+ * payment_items are covered; archived months are listed, but their totals are not here.
+ */
+public final class LedgerCube {
+
+    public enum Column {
+        PLANNED,
+        ACTUAL,
+        // Sum of positive actual amounts only, as the category breakdown reports
+        POSITIVE_ACTUAL,
+        PAID_ACTUAL,
+        ITEMS,
+        PAID_ITEMS
+    }
+
+    private final MonthKey firstMonth;
+    private final int months;
+    private final long[] categoryIds;
+    private final String[] categoryNames;
+    private final long[][] columns;
+    private final int[] archivedMonths;
+
+    LedgerCube(MonthKey firstMonth, int months, long[] categoryIds, String[] categoryNames, long[][] columns,
+            int[] archivedMonths) {
+        this.firstMonth = firstMonth;
+        this.months = months;
+        this.categoryIds = categoryIds;
+        this.categoryNames = categoryNames;
+        this.columns = columns;
+        this.archivedMonths = archivedMonths;
+    }
+
+    /** First covered month, or null when the user has no items. */
+    public MonthKey firstMonth() {
+        return firstMonth;
+    }
+
+    public int monthCount() {
+        return months;
+    }
+
+    public int categoryCount() {
+        return categoryIds.length;
+    }
+
+    /** Category id of an ordinal; null for ordinal 0, the uncategorised items. */
+    public Long categoryId(int ordinal) {
+        return ordinal == 0 ? null : categoryIds[ordinal];
+    }
+
+    /** Name at build time; "Unknown" for uncategorised items and categories that no longer exist. */
+    public String categoryName(int ordinal) {
+        return categoryNames[ordinal];
+    }
+
+    public boolean isArchived(MonthKey month) {
+        return Arrays.binarySearch(archivedMonths, month.value()) >= 0;
+    }
+
+    /** One cell; zero outside the covered months. */
+    public long value(Column column, MonthKey month, int ordinal) {
+        int offset = offset(month);
+        return offset < 0 ? 0L : columns[column.ordinal()][offset * categoryIds.length + ordinal];
+    }
+
+    /** Total of a column over all categories of a month; zero outside the covered months. */
+    public long monthTotal(Column column, MonthKey month) {
+        int offset = offset(month);
+        if (offset < 0) {
+            return 0L;
+        }
+        long[] cells = columns[column.ordinal()];
+        int width = categoryIds.length;
+        long total = 0L;
+        for (int i = offset * width, end = i + width; i < end; i++) {
+            total += cells[i];
+        }
+        return total;
+    }
+
+    /**
+     * Category ordinals of a month with a positive value in {@code column}, largest first.
+     */
+    public int[] rankCategories(Column column, MonthKey month) {
+        int offset = offset(month);
+        if (offset < 0) {
+            return new int[0];
+        }
+        long[] cells = columns[column.ordinal()];
+        int width = categoryIds.length;
+        int base = offset * width;
+        int[] ranked = new int[width];
+        int count = 0;
+        for (int ordinal = 0; ordinal < width; ordinal++) {
+            long value = cells[base + ordinal];
+            if (value <= 0) {
+                continue;
+            }
+            // Insertion sort: a user has a handful of categories
+            int i = count++;
+            while (i > 0 && cells[base + ranked[i - 1]] < value) {
+                ranked[i] = ranked[i - 1];
+                i--;
+            }
+            ranked[i] = ordinal;
+        }
+        return Arrays.copyOf(ranked, count);
+    }
+
+    /** Approximate heap footprint, for the cache's byte bound. */
+    long bytes() {
+        long bytes = 64L + 16L + categoryIds.length * 8L + 16L + archivedMonths.length * 4L;
+        for (String name : categoryNames) {
+            bytes += 8L + (name == null ? 0 : 40L + name.length());
+        }
+        for (long[] column : columns) {
+            bytes += 16L + column.length * 8L;
+        }
+        return bytes;
+    }
+
+    private int offset(MonthKey month) {
+        if (firstMonth == null) {
+            return -1;
+        }
+        int offset = firstMonth.monthsUntil(month);
+        return offset >= 0 && offset < months ? offset : -1;
+    }
+}
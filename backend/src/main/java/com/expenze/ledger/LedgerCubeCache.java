@@ -0,0 +1,190 @@
+package com.expenze.ledger;
+
+import com.expenze.cache.UserDataVersions;
+import com.expenze.entity.Category;
+import com.expenze.repository.CategoryRepository;
+import com.expenze.util.Money;
+import com.expenze.util.MonthKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-user {@link LedgerCube}s, built on first use from one aggregate query over the user's
+ * payment_items and bounded by total bytes, evicting least recently used users.
+ *
+ * A cube is tagged with the user's ledger {@link UserDataVersions} generation it was built under.
+ * Every write to a user's items (item edits, month generation, imports, archiving, category
+ * changes) advances that generation after commit, so a cube is used only while no write has
+ * committed since it was built; otherwise it is rebuilt. Salary writes have their own
+ * generation and leave cubes alone. Entries are local to this instance.
+ */
+@Slf4j
+@Component
+public class LedgerCubeCache {
+
+    // Aggregates in LedgerCube.Column order
+    private static final String CELLS_SQL = """
+            SELECT month_num, category_id,
+                   SUM(planned_amount), SUM(actual_amount),
+                   SUM(CASE WHEN actual_amount > 0 THEN actual_amount ELSE 0 END),
+                   SUM(CASE WHEN is_paid = 1 THEN actual_amount ELSE 0 END),
+                   COUNT(*), COUNT(*) FILTER (WHERE is_paid = 1)
+            FROM payment_items
+            WHERE user_id = ?
+            GROUP BY month_num, category_id""";
+
+    private static final String ARCHIVED_SQL =
+            "SELECT month_num FROM month_plans WHERE user_id = ? AND archived_at IS NOT NULL ORDER BY month_num";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CategoryRepository categoryRepository;
+    private final UserDataVersions versions;
+    private final boolean enabled;
+    private final long maxBytes;
+    private final Counter hits;
+    private final Counter misses;
+
+    // Guarded by this
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes;
+
+    public LedgerCubeCache(JdbcTemplate jdbcTemplate, CategoryRepository categoryRepository,
+            UserDataVersions versions, MeterRegistry meterRegistry,
+            @Value("${expenze.cache.ledger.enabled:true}") boolean enabled,
+            @Value("${expenze.cache.ledger.max-bytes:33554432}") long maxBytes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.categoryRepository = categoryRepository;
+        this.versions = versions;
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.hits = Counter.builder("expenze.cache.ledger.requests").tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("expenze.cache.ledger.requests").tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("expenze.cache.ledger.bytes", this, LedgerCubeCache::getBytes)
+                .baseUnit("bytes")
+                .description("Estimated heap held by per-user ledger cubes")
+                .register(meterRegistry);
+        Gauge.builder("expenze.cache.ledger.users", this, LedgerCubeCache::getUserCount)
+                .register(meterRegistry);
+    }
+
+    /** The user's cube, current as of the last committed write. */
+    public LedgerCube get(Long userId) {
+        if (!enabled) {
+            return build(userId);
+        }
+        long version = versions.current(userId);
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(userId);
+        }
+        if (entry != null && entry.version == version) {
+            hits.increment();
+            return entry.cube;
+        }
+
+        misses.increment();
+        LedgerCube cube = build(userId);
+        store(userId, version, cube);
+        return cube;
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized int getUserCount() {
+        return entries.size();
+    }
+
+    private synchronized void store(Long userId, long version, LedgerCube cube) {
+        long size = cube.bytes();
+        // A write committed while building may or may not be in this cube
+        if (size > maxBytes || versions.current(userId) != version) {
+            return;
+        }
+        Entry previous = entries.put(userId, new Entry(cube, version, size));
+        if (previous != null) {
+            bytes -= previous.bytes;
+        }
+        bytes += size;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().bytes;
+            eldest.remove();
+        }
+    }
+
+    private LedgerCube build(Long userId) {
+        List<long[]> cells = new ArrayList<>();
+        int[] range = { Integer.MAX_VALUE, Integer.MIN_VALUE };
+        jdbcTemplate.query(CELLS_SQL, rs -> {
+            int month = rs.getInt(1);
+            long categoryId = rs.getLong(2);
+            if (rs.wasNull()) {
+                categoryId = -1;
+            }
+            cells.add(new long[] { month, categoryId,
+                    Money.toMinorUnits(rs.getBigDecimal(3)), Money.toMinorUnits(rs.getBigDecimal(4)),
+                    Money.toMinorUnits(rs.getBigDecimal(5)), Money.toMinorUnits(rs.getBigDecimal(6)),
+                    rs.getLong(7), rs.getLong(8) });
+            range[0] = Math.min(range[0], month);
+            range[1] = Math.max(range[1], month);
+        }, userId);
+        int[] archived = jdbcTemplate.queryForList(ARCHIVED_SQL, Integer.class, userId).stream()
+                .mapToInt(Integer::intValue).toArray();
+
+        // Ordinal 0 is "no category"; the user's categories follow in display order, then
+        // any ids referenced by items whose category is gone
+        Map<Long, Integer> ordinals = new HashMap<>();
+        List<Long> ids = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        ids.add(-1L);
+        names.add("Unknown");
+        for (Category category : categoryRepository.findByUserIdOrderBySortOrderAscNameAsc(userId)) {
+            ordinals.put(category.getId(), ids.size());
+            ids.add(category.getId());
+            names.add(category.getName());
+        }
+        for (long[] cell : cells) {
+            if (cell[1] >= 0 && !ordinals.containsKey(cell[1])) {
+                ordinals.put(cell[1], ids.size());
+                ids.add(cell[1]);
+                names.add("Unknown");
+            }
+        }
+
+        int width = ids.size();
+        MonthKey first = cells.isEmpty() ? null : new MonthKey(range[0]);
+        int months = first == null ? 0 : first.monthsUntil(new MonthKey(range[1])) + 1;
+        LedgerCube.Column[] columns = LedgerCube.Column.values();
+        long[][] data = new long[columns.length][months * width];
+        for (long[] cell : cells) {
+            int ordinal = cell[1] < 0 ? 0 : ordinals.get(cell[1]);
+            int index = first.monthsUntil(new MonthKey((int) cell[0])) * width + ordinal;
+            for (int c = 0; c < columns.length; c++) {
+                data[c][index] = cell[2 + c];
+            }
+        }
+
+        long[] categoryIds = ids.stream().mapToLong(Long::longValue).toArray();
+        log.debug("Built ledger cube for user {}: {} months x {} categories", userId, months, width);
+        return new LedgerCube(first, months, categoryIds, names.toArray(new String[0]), data, archived);
+    }
+
+    private record Entry(LedgerCube cube, long version, long bytes) {
+    }
+}
@@ -0,0 +1,178 @@
+package com.expenze.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sheds API requests beyond an adaptive concurrency limit with 503 and Retry-After, instead
+ * of letting them queue on request threads and database connections until they time out.
+ *
+ * Requests are classified by path into {@link RequestPriority} classes. Interactive requests
+ * may use the whole limit, standard ones {@code standard-share} of it and low-priority ones
+ * {@code low-share}, so low-priority work is turned away first as the limit shrinks. Health
+ * probes, the Prometheus scrape and CORS preflights are never limited.
+ *
+ * A request that goes async, such as a streamed export, keeps its permit until the response
+ * completes. Its duration is not fed to the limit: it follows the size of the download.
+ */
+@Slf4j
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimit limit;
+    private final boolean enabled;
+    private final Map<RequestPriority, Double> shares = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Counter> shed = new EnumMap<>(RequestPriority.class);
+    private final String retryAfterSeconds;
+    private final ObjectMapper objectMapper;
+
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry, ObjectMapper objectMapper,
+            @Value("${expenze.concurrency-limit.enabled:true}") boolean enabled,
+            @Value("${expenze.concurrency-limit.initial-limit:20}") int initialLimit,
+            @Value("${expenze.concurrency-limit.min-limit:4}") int minLimit,
+            @Value("${expenze.concurrency-limit.max-limit:200}") int maxLimit,
+            @Value("${expenze.concurrency-limit.tolerance:2.0}") double tolerance,
+            @Value("${expenze.concurrency-limit.window-ms:250}") long windowMillis,
+            @Value("${expenze.concurrency-limit.standard-share:0.8}") double standardShare,
+            @Value("${expenze.concurrency-limit.low-share:0.5}") double lowShare,
+            @Value("${expenze.concurrency-limit.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, tolerance, windowMillis, 10);
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+        shares.put(RequestPriority.INTERACTIVE, 1.0);
+        shares.put(RequestPriority.STANDARD, standardShare);
+        shares.put(RequestPriority.LOW, lowShare);
+
+        Gauge.builder("expenze.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive concurrency limit for API requests")
+                .register(meterRegistry);
+        Gauge.builder("expenze.concurrency.inflight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("API requests currently admitted")
+                .register(meterRegistry);
+        for (RequestPriority priority : RequestPriority.values()) {
+            shed.put(priority, Counter.builder("expenze.concurrency.shed")
+                    .description("API requests rejected with 503 by the concurrency limiter")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !enabled
+                || "OPTIONS".equals(request.getMethod())
+                || path.startsWith("/actuator/health")
+                || path.equals("/actuator/prometheus")
+                || !(path.startsWith("/api/") || path.startsWith("/actuator/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestPriority priority = classify(request.getMethod(), request.getRequestURI());
+        if (!limit.tryAcquire(shares.get(priority))) {
+            shed.get(priority).increment();
+            log.debug("Shed {} {} ({}), limit {}", request.getMethod(), request.getRequestURI(), priority,
+                    limit.getLimit());
+            reject(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean released = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete());
+                released = true;
+            }
+        } finally {
+            if (!released) {
+                limit.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    // The container calls onComplete after an error or timeout too; the flag guards a second call
+    private final class ReleaseOnComplete implements AsyncListener {
+
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (done.compareAndSet(false, true)) {
+                limit.releaseWithoutSample();
+            }
+        }
+    }
+
+    static RequestPriority classify(String method, String path) {
+        if (path.startsWith("/api/v1/admin/") || path.startsWith("/actuator/")
+                || path.contains("/export") || path.equals("/api/v1/import")
+                || path.equals("/api/v1/category-templates/initialize")) {
+            return RequestPriority.LOW;
+        }
+        if (path.startsWith("/api/v1/items") || ("GET".equals(method) && path.startsWith("/api/v1/month/"))) {
+            return RequestPriority.INTERACTIVE;
+        }
+        return RequestPriority.STANDARD;
+    }
+
+    // Same body shape as GlobalExceptionHandler, which this filter runs in front of
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now().toString());
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", "Server is busy. Please retry shortly.");
+        body.put("path", request.getRequestURI());
+
+        response.setStatus(status.value());
+        response.setHeader("Retry-After", retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
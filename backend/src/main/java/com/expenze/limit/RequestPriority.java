@@ -0,0 +1,18 @@
+package com.expenze.limit;
+
+/**
+ * Admission classes for the concurrency limiter. Each class may only use its share of the
+ * current limit, so under pressure the low classes are shed first and interactive work
+ * keeps the remaining capacity.
+ */
+public enum RequestPriority {
+
+    /** Item edits and month reads: what a user is waiting on. */
+    INTERACTIVE,
+
+    /** Everything else under the API. */
+    STANDARD,
+
+    /** Admin listings, exports and bulk initialization; can be retried later. */
+    LOW
+}
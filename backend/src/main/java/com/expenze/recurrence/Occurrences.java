@@ -0,0 +1,14 @@
+package com.expenze.recurrence;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/** The dates a schedule falls due within one month; never empty. */
+public record Occurrences(Schedule schedule, List<LocalDate> dates) {
+
+    /** Planned amount for the month: the schedule's amount once per occurrence. */
+    public BigDecimal plannedAmount() {
+        return schedule.amount().multiply(BigDecimal.valueOf(dates.size()));
+    }
+}
@@ -0,0 +1,134 @@
+package com.expenze.recurrence;
+
+import com.expenze.cache.UserDataVersions;
+import com.expenze.cache.UserDataVersions.Scope;
+import com.expenze.entity.RegularPayment;
+import com.expenze.repository.RegularPaymentRepository;
+import com.expenze.util.MonthKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Expands a user's active regular payments into their occurrences per month (see
+ * {@link Schedule} for the frequency rules).
+ *
+ * The user's regular payments are loaded once into a {@link ScheduleIndex} and kept, least
+ * recently used first out beyond {@code expenze.cache.recurrence.max-users}. An index is
+ * tagged with the user's {@link Scope#REGULAR_PAYMENTS} generation and rebuilt only once a
+ * regular payment write has committed since; item and salary writes leave it alone. Expanding
+ * any number of months therefore costs at most one query. Entries are local to this instance.
+ */
+@Slf4j
+@Component
+public class RecurrenceEngine {
+
+    private final RegularPaymentRepository regularPaymentRepository;
+    private final UserDataVersions versions;
+    private final boolean enabled;
+    private final int maxUsers;
+    private final Counter hits;
+    private final Counter misses;
+
+    // Guarded by this
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    public RecurrenceEngine(RegularPaymentRepository regularPaymentRepository, UserDataVersions versions,
+            MeterRegistry meterRegistry,
+            @Value("${expenze.cache.recurrence.enabled:true}") boolean enabled,
+            @Value("${expenze.cache.recurrence.max-users:10000}") int maxUsers) {
+        this.regularPaymentRepository = regularPaymentRepository;
+        this.versions = versions;
+        this.enabled = enabled;
+        this.maxUsers = maxUsers;
+        this.hits = Counter.builder("expenze.cache.recurrence.requests").tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("expenze.cache.recurrence.requests").tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("expenze.cache.recurrence.users", this, RecurrenceEngine::getUserCount)
+                .register(meterRegistry);
+    }
+
+    /** Regular payments due in the month, with their due dates, in start date order. */
+    public List<Occurrences> expand(Long userId, MonthKey month) {
+        return expand(index(userId), month);
+    }
+
+    /** {@link #expand(Long, MonthKey)} for every month of [from, to], from one index lookup. */
+    public Map<MonthKey, List<Occurrences>> expand(Long userId, MonthKey from, MonthKey to) {
+        ScheduleIndex index = index(userId);
+        Map<MonthKey, List<Occurrences>> months = new LinkedHashMap<>();
+        for (MonthKey month = from; month.compareTo(to) <= 0; month = month.plusMonths(1)) {
+            months.put(month, expand(index, month));
+        }
+        return months;
+    }
+
+    public synchronized int getUserCount() {
+        return entries.size();
+    }
+
+    private List<Occurrences> expand(ScheduleIndex index, MonthKey month) {
+        List<Occurrences> due = new ArrayList<>();
+        for (Schedule schedule : index.overlapping(month.firstDay(), month.lastDay())) {
+            List<LocalDate> dates = schedule.occurrences(month);
+            if (!dates.isEmpty()) {
+                due.add(new Occurrences(schedule, dates));
+            }
+        }
+        return due;
+    }
+
+    private ScheduleIndex index(Long userId) {
+        if (!enabled) {
+            return load(userId);
+        }
+        long version = versions.current(Scope.REGULAR_PAYMENTS, userId);
+        synchronized (this) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.version == version) {
+                hits.increment();
+                return entry.index;
+            }
+        }
+
+        misses.increment();
+        ScheduleIndex index = load(userId);
+        synchronized (this) {
+            // A write committed while loading may or may not be in this index
+            if (versions.current(Scope.REGULAR_PAYMENTS, userId) == version) {
+                entries.put(userId, new Entry(index, version));
+                Iterator<Entry> eldest = entries.values().iterator();
+                while (entries.size() > maxUsers && eldest.hasNext()) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+        return index;
+    }
+
+    private ScheduleIndex load(Long userId) {
+        List<Schedule> active = new ArrayList<>();
+        for (RegularPayment payment : regularPaymentRepository.findByUserId(userId)) {
+            if (payment.getIsActive() == null || payment.getIsActive() == 1) {
+                active.add(Schedule.of(payment));
+            }
+        }
+        log.debug("Loaded {} active regular payments for user {}", active.size(), userId);
+        return new ScheduleIndex(active);
+    }
+
+    private record Entry(ScheduleIndex index, long version) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.expenze.recurrence;
+
+import com.expenze.entity.RegularPayment;
+import com.expenze.util.MonthKey;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable snapshot of one active {@link RegularPayment}, expanded into the dates it falls due.
+ *
+ * Dates outside [startDate, endDate] are never due. Within them:
+ * <ul>
+ * <li>MONTHLY is due once a month on the start date's day of month, or the month's last day
+ * when it is shorter (day 1 without a start date).</li>
+ * <li>WEEKLY is due every 7 days from the start date (Mondays without a start date), so a
+ * month has 4 or 5 occurrences, fewer where the range cuts it.</li>
+ * <li>YEARLY is due once, in the start date's month and day (1 January without a start date).</li>
+ * </ul>
+ * A missing or unknown frequency is MONTHLY, the entity's default.
+ */
+public record Schedule(Long id, String name, Long categoryId, BigDecimal amount, LocalDate startDate,
+        LocalDate endDate, Frequency frequency) {
+
+    public enum Frequency {
+        MONTHLY,
+        WEEKLY,
+        YEARLY;
+
+        static Frequency parse(String value) {
+            if (value != null) {
+                for (Frequency frequency : values()) {
+                    if (frequency.name().equalsIgnoreCase(value.trim())) {
+                        return frequency;
+                    }
+                }
+            }
+            return MONTHLY;
+        }
+    }
+
+    // Anchor of weekly schedules without a start date
+    private static final LocalDate FIRST_MONDAY = LocalDate.of(1970, 1, 5);
+
+    static Schedule of(RegularPayment payment) {
+        BigDecimal amount = payment.getDefaultPlannedAmount();
+        return new Schedule(payment.getId(), payment.getName(), payment.getCategoryId(),
+                amount != null ? amount : BigDecimal.ZERO, payment.getStartDate(), payment.getEndDate(),
+                Frequency.parse(payment.getFrequency()));
+    }
+
+    /** Due dates within the month, in order; empty when none. */
+    public List<LocalDate> occurrences(MonthKey month) {
+        LocalDate from = month.firstDay();
+        LocalDate to = month.lastDay();
+        if (startDate != null && startDate.isAfter(from)) {
+            from = startDate;
+        }
+        if (endDate != null && endDate.isBefore(to)) {
+            to = endDate;
+        }
+        List<LocalDate> dates = new ArrayList<>(frequency == Frequency.WEEKLY ? 5 : 1);
+        if (from.isAfter(to)) {
+            return dates;
+        }
+        int anchorDay = startDate != null ? startDate.getDayOfMonth() : 1;
+        switch (frequency) {
+            case WEEKLY -> {
+                LocalDate anchor = startDate != null ? startDate : FIRST_MONDAY;
+                long behind = Math.floorMod(ChronoUnit.DAYS.between(anchor, from), 7L);
+                LocalDate date = behind == 0 ? from : from.plusDays(7 - behind);
+                for (; !date.isAfter(to); date = date.plusWeeks(1)) {
+                    dates.add(date);
+                }
+            }
+            case YEARLY -> {
+                int anniversary = startDate != null ? startDate.getMonthValue() : 1;
+                if (month.month() == anniversary) {
+                    addIfWithin(dates, dayOfMonth(month, anchorDay), from, to);
+                }
+            }
+            default -> addIfWithin(dates, dayOfMonth(month, anchorDay), from, to);
+        }
+        return dates;
+    }
+
+    private static LocalDate dayOfMonth(MonthKey month, int day) {
+        LocalDate first = month.firstDay();
+        return first.withDayOfMonth(Math.min(day, first.lengthOfMonth()));
+    }
+
+    private static void addIfWithin(List<LocalDate> dates, LocalDate date, LocalDate from, LocalDate to) {
+        if (!date.isBefore(from) && !date.isAfter(to)) {
+            dates.add(date);
+        }
+    }
+}
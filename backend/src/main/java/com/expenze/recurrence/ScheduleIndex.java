@@ -0,0 +1,77 @@
+package com.expenze.recurrence;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A user's active schedules as an interval index over [startDate, endDate].
+ *
+ * Schedules are sorted by start (open starts first), and {@code maxEnd[i]} is the latest end of
+ * schedules 0..i, so a lookup binary-searches the last schedule starting by the period's end and
+ * walks back only while an earlier schedule can still reach the period. Immutable once built.
+ */
+final class ScheduleIndex {
+
+    private static final LocalDate OPEN_START = LocalDate.MIN;
+    private static final LocalDate OPEN_END = LocalDate.MAX;
+
+    private final Schedule[] schedules;
+    private final LocalDate[] starts;
+    private final LocalDate[] maxEnds;
+
+    ScheduleIndex(List<Schedule> active) {
+        schedules = active.toArray(new Schedule[0]);
+        Arrays.sort(schedules, Comparator.comparing(ScheduleIndex::start)
+                .thenComparing(Schedule::id, Comparator.nullsLast(Comparator.naturalOrder())));
+        starts = new LocalDate[schedules.length];
+        maxEnds = new LocalDate[schedules.length];
+        LocalDate maxEnd = OPEN_START;
+        for (int i = 0; i < schedules.length; i++) {
+            starts[i] = start(schedules[i]);
+            LocalDate end = end(schedules[i]);
+            maxEnd = end.isAfter(maxEnd) ? end : maxEnd;
+            maxEnds[i] = maxEnd;
+        }
+    }
+
+    /** Schedules whose range overlaps [from, to], in start order. */
+    List<Schedule> overlapping(LocalDate from, LocalDate to) {
+        // Last schedule starting on or before to
+        int lo = 0;
+        int hi = schedules.length - 1;
+        int last = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid].isAfter(to)) {
+                hi = mid - 1;
+            } else {
+                last = mid;
+                lo = mid + 1;
+            }
+        }
+        List<Schedule> result = new ArrayList<>();
+        for (int i = last; i >= 0 && !maxEnds[i].isBefore(from); i--) {
+            if (!end(schedules[i]).isBefore(from)) {
+                result.add(schedules[i]);
+            }
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    int size() {
+        return schedules.length;
+    }
+
+    private static LocalDate start(Schedule schedule) {
+        return schedule.startDate() != null ? schedule.startDate() : OPEN_START;
+    }
+
+    private static LocalDate end(Schedule schedule) {
+        return schedule.endDate() != null ? schedule.endDate() : OPEN_END;
+    }
+}
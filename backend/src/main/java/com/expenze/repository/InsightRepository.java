@@ -0,0 +1,14 @@
+package com.expenze.repository;
+
+import com.expenze.entity.Insight;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface InsightRepository extends JpaRepository<Insight, Long> {
+
+    List<Insight> findByUserIdOrderByMonthDescScoreDesc(Long userId, Pageable pageable);
+}
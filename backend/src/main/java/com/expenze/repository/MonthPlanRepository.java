@@ -1,12 +1,34 @@
 package com.expenze.repository;
 
 import com.expenze.entity.MonthPlan;
+import com.expenze.util.MonthKey;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface MonthPlanRepository extends JpaRepository<MonthPlan, Long> {
-    Optional<MonthPlan> findByUserIdAndMonthKey(Long userId, String monthKey);
+    Optional<MonthPlan> findByUserIdAndMonth(Long userId, MonthKey month);
+
+    List<MonthPlan> findByUserIdAndMonthBetweenOrderByMonthAsc(Long userId, MonthKey from, MonthKey to);
+
+    List<MonthPlan> findTop200ByMonthLessThanAndArchivedAtIsNullOrderByMonthAsc(MonthKey cutoff);
+
+    // Archived months whose segment may hold the item; months without a range yet are included
+    @Query("SELECT mp FROM MonthPlan mp WHERE mp.userId = :userId AND mp.archivedAt IS NOT NULL "
+            + "AND (mp.archivedMinItemId IS NULL OR :itemId BETWEEN mp.archivedMinItemId AND mp.archivedMaxItemId) "
+            + "ORDER BY mp.month DESC")
+    List<MonthPlan> findArchivedCandidatesForItem(Long userId, Long itemId);
+
+    // Archived before item id ranges were recorded
+    List<MonthPlan> findTop200ByArchivedAtIsNotNullAndArchivedMinItemIdIsNullOrderByIdAsc();
+
+    // Archived before month_category_rollups existed
+    @Query(value = "SELECT mp.* FROM month_plans mp WHERE mp.archived_at IS NOT NULL AND NOT EXISTS "
+            + "(SELECT 1 FROM month_category_rollups r WHERE r.user_id = mp.user_id AND r.month_num = mp.month_num) "
+            + "ORDER BY mp.id LIMIT 200", nativeQuery = true)
+    List<MonthPlan> findTop200ArchivedWithoutRollups();
 }
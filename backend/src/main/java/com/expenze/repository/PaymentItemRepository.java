@@ -1,10 +1,13 @@
 package com.expenze.repository;
 
 import com.expenze.entity.PaymentItem;
+import com.expenze.util.MonthKey;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,13 +15,24 @@ import java.util.Optional;
 public interface PaymentItemRepository extends JpaRepository<PaymentItem, Long> {
         List<PaymentItem> findByMonthPlanId(Long monthPlanId);
 
-        List<PaymentItem> findByUserIdAndMonthPlanId(Long userId, Long monthPlanId);
+        // Queries on payment_items carry month_num so Postgres prunes to one yearly partition
+        List<PaymentItem> findByUserIdAndMonthPlanIdAndMonth(Long userId, Long monthPlanId, MonthKey month);
+
+        Optional<PaymentItem> findByIdAndMonth(Long id, MonthKey month);
+
+        List<PaymentItem> findByUserIdAndMonth(Long userId, MonthKey month);
+
+        List<PaymentItem> findByUserIdAndMonthBetween(Long userId, MonthKey from, MonthKey to);
 
         @Query("SELECT pi FROM PaymentItem pi " +
                         "LEFT JOIN Category c ON pi.categoryId = c.id " +
-                        "WHERE pi.monthPlanId = :monthPlanId AND pi.userId = :userId " +
+                        "WHERE pi.monthPlanId = :monthPlanId AND pi.userId = :userId AND pi.month = :month " +
                         "ORDER BY c.sortOrder ASC, pi.name ASC")
-        List<PaymentItem> findAllByMonthPlanIdWithCategoryOrder(Long monthPlanId, Long userId);
+        List<PaymentItem> findAllByMonthPlanIdWithCategoryOrder(Long monthPlanId, Long userId, MonthKey month);
+
+        @Modifying
+        @Query("DELETE FROM PaymentItem pi WHERE pi.month = :month AND pi.id IN :ids")
+        int deleteByMonthAndIdIn(MonthKey month, Collection<Long> ids);
 
         Optional<PaymentItem> findByMonthPlanIdAndNameAndCategoryIdAndUserId(Long monthPlanId, String name,
                         Long categoryId,
@@ -1,12 +1,16 @@
 package com.expenze.repository;
 
 import com.expenze.entity.Salary;
+import com.expenze.util.MonthKey;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SalaryRepository extends JpaRepository<Salary, Long> {
-    Optional<Salary> findByUserIdAndMonthKey(Long userId, String monthKey);
+    Optional<Salary> findByUserIdAndMonth(Long userId, MonthKey month);
+
+    List<Salary> findByUserIdAndMonthBetweenOrderByMonthAsc(Long userId, MonthKey from, MonthKey to);
 }
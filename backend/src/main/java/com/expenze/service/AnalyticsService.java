@@ -0,0 +1,18 @@
+package com.expenze.service;
+
+import com.expenze.dto.CategoryTrendDto;
+import com.expenze.util.MonthKey;
+
+import java.util.List;
+
+public interface AnalyticsService {
+
+    /**
+     * Monthly planned and actual totals per category in [from, to], with 3- and 12-month
+     * rolling averages and year-over-year deltas. Archived months are included. Every
+     * category with spending in the range (or the 12 months before it) gets one point per month.
+     *
+     * @param categoryIds restricts the result to these categories; null or empty for all
+     */
+    List<CategoryTrendDto> getTrends(Long userId, MonthKey from, MonthKey to, List<Long> categoryIds);
+}
@@ -0,0 +1,16 @@
+package com.expenze.service;
+
+import com.expenze.export.ExportFormat;
+import com.expenze.util.MonthKey;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+
+    /**
+     * Streams a user's categories, months, items and salaries in [from, to] to {@code out}
+     * as they are read; heap use does not grow with the size of the history.
+     */
+    void export(Long userId, MonthKey from, MonthKey to, ExportFormat format, OutputStream out) throws IOException;
+}
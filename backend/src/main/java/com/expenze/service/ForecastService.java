@@ -0,0 +1,14 @@
+package com.expenze.service;
+
+import com.expenze.dto.ForecastDto;
+
+public interface ForecastService {
+
+    /**
+     * Projected outflow and income for the current month and the {@code months - 1} after it.
+     * Outflow is the regular payments due in each month plus the average of manual items over
+     * the recent closed months; income is the month's recorded salary, or else the latest
+     * recorded one.
+     */
+    ForecastDto getForecast(Long userId, int months);
+}
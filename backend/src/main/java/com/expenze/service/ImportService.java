@@ -0,0 +1,20 @@
+package com.expenze.service;
+
+import com.expenze.dto.ImportProgressDto;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+public interface ImportService {
+
+    /**
+     * Starts importing a bank statement in the background and returns its initial progress;
+     * poll {@link #getProgress} with the returned id until it is no longer RUNNING.
+     *
+     * @param format     CSV or OFX; null to decide by file extension
+     * @param dateFormat pattern of the CSV date column, e.g. {@code dd/MM/yyyy}
+     */
+    ImportProgressDto start(Long userId, MultipartFile file, String format, String dateFormat) throws IOException;
+
+    ImportProgressDto getProgress(Long userId, String importId);
+}
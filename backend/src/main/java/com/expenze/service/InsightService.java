@@ -0,0 +1,14 @@
+package com.expenze.service;
+
+import com.expenze.dto.InsightDto;
+
+import java.util.List;
+
+public interface InsightService {
+
+    /**
+     * The user's insights as last written by the nightly scan, newest month first and the
+     * largest deviations first within a month.
+     */
+    List<InsightDto> getInsights(Long userId, int limit);
+}
@@ -0,0 +1,37 @@
+package com.expenze.service;
+
+import com.expenze.entity.MonthPlan;
+import com.expenze.entity.PaymentItem;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface MonthArchiveService {
+
+    /**
+     * Archives one batch of closed months older than the archival horizon.
+     * Returns the number of months archived.
+     */
+    int archiveClosedMonths();
+
+    /**
+     * Writes rollups for one batch of months archived before rollups existed.
+     * Returns the number of months rolled up.
+     */
+    int rollUpArchivedMonths();
+
+    /**
+     * Records item id ranges for one batch of months archived before ranges existed.
+     * Returns the number of months updated.
+     */
+    int indexArchivedMonths();
+
+    // Read-only view of an archived month's items (shared, do not modify)
+    List<PaymentItem> loadArchivedItems(MonthPlan plan);
+
+    // The user's archived month whose segment holds the item, if any
+    Optional<MonthPlan> findArchivedPlanOfItem(Long userId, Long itemId);
+
+    // Moves an archived month back into payment_items, keeping item ids; joins the caller's transaction
+    void restore(MonthPlan plan);
+}
@@ -2,25 +2,28 @@ package com.expenze.service;
 
 import com.expenze.dto.MonthPlanDto;
 import com.expenze.dto.PaymentItemDto;
+import com.expenze.util.MonthKey;
 import java.util.List;
 
 public interface MonthPlanService {
-    MonthPlanDto getMonthPlan(Long userId, String monthKey);
+    MonthPlanDto getMonthPlan(Long userId, MonthKey month);
 
-    Long generateMonthPlan(Long userId, String monthKey);
+    Long generateMonthPlan(Long userId, MonthKey month);
 
     Long addManualItem(Long userId, PaymentItemDto dto);
 
+    // The item's month (dto.monthKey, or month on delete) is optional but lets the lookup
+    // prune to one partition
     void updateItem(Long userId, Long itemId, PaymentItemDto dto);
 
-    void deleteItem(Long userId, Long itemId);
+    void deleteItem(Long userId, Long itemId, MonthKey month);
 
     // Summaries
     List<Object> getLast6MonthsSummary(Long userId);
 
-    List<Object> getCategoryExpenses(Long userId, String monthKey);
+    List<Object> getCategoryExpenses(Long userId, MonthKey month);
 
-    Object getSalary(Long userId, String monthKey);
+    Object getSalary(Long userId, MonthKey month);
 
-    void saveSalary(Long userId, String monthKey, java.math.BigDecimal amount);
+    void saveSalary(Long userId, MonthKey month, java.math.BigDecimal amount);
 }
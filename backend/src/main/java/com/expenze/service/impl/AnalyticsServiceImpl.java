@@ -0,0 +1,143 @@
+package com.expenze.service.impl;
+
+import com.expenze.db.DbPool;
+import com.expenze.db.Workload;
+import com.expenze.dto.CategoryTrendDto;
+import com.expenze.dto.TrendPointDto;
+import com.expenze.service.AnalyticsService;
+import com.expenze.util.MonthKey;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    static final int MAX_RANGE_MONTHS = 120;
+
+    // Live months come from payment_items, archived ones from month_category_rollups. The
+    // grid is dense (every month x category, zero-filled), so ROWS frames and LAG(12) count
+    // calendar months. It starts 12 months before the range for the windows to be complete.
+    private static final String TRENDS_SQL = """
+            WITH cells AS (
+                SELECT month_num, COALESCE(category_id, 0) AS category_key,
+                       SUM(planned_amount) AS planned, SUM(actual_amount) AS actual
+                FROM payment_items
+                WHERE user_id = ? AND month_num BETWEEN ? AND ?%1$s
+                GROUP BY month_num, category_id
+                UNION ALL
+                SELECT month_num, COALESCE(category_id, 0), planned_amount, actual_amount
+                FROM month_category_rollups
+                WHERE user_id = ? AND month_num BETWEEN ? AND ? AND item_count > 0%1$s
+            ),
+            months AS (
+                SELECT (EXTRACT(YEAR FROM m) * 100 + EXTRACT(MONTH FROM m))::int AS month_num
+                FROM generate_series(?::date, ?::date, INTERVAL '1 month') AS m
+            ),
+            series AS (
+                SELECT DISTINCT category_key FROM cells
+            ),
+            grid AS (
+                SELECT m.month_num, s.category_key,
+                       COALESCE(SUM(c.planned), 0) AS planned, COALESCE(SUM(c.actual), 0) AS actual
+                FROM months m
+                CROSS JOIN series s
+                LEFT JOIN cells c ON c.month_num = m.month_num AND c.category_key = s.category_key
+                GROUP BY m.month_num, s.category_key
+            ),
+            windowed AS (
+                SELECT month_num, category_key, planned, actual,
+                       AVG(actual) OVER (w ROWS BETWEEN 2 PRECEDING AND CURRENT ROW) AS avg3,
+                       AVG(actual) OVER (w ROWS BETWEEN 11 PRECEDING AND CURRENT ROW) AS avg12,
+                       LAG(actual, 12) OVER w AS previous_year
+                FROM grid
+                WINDOW w AS (PARTITION BY category_key ORDER BY month_num)
+            )
+            SELECT w.category_key, cat.name, w.month_num, w.planned, w.actual,
+                   ROUND(w.avg3, 2), ROUND(w.avg12, 2),
+                   w.actual - w.previous_year,
+                   CASE WHEN w.previous_year > 0
+                        THEN ROUND((w.actual - w.previous_year) * 100 / w.previous_year, 1) END
+            FROM windowed w
+            LEFT JOIN categories cat ON cat.id = w.category_key
+            WHERE w.month_num >= ?
+            ORDER BY cat.sort_order NULLS LAST, cat.name NULLS LAST, w.category_key, w.month_num""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Hard stop for one trends query; TrendsBenchmark measures p95 far below it
+    @Value("${expenze.analytics.trends.timeout-ms:2000}")
+    private long timeoutMs;
+
+    @Override
+    @Transactional(readOnly = true)
+    @DbPool(Workload.REPORTING)
+    public List<CategoryTrendDto> getTrends(Long userId, MonthKey from, MonthKey to, List<Long> categoryIds) {
+        if (from.compareTo(to) > 0) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (from.monthsUntil(to) >= MAX_RANGE_MONTHS) {
+            throw new IllegalArgumentException("Trend range is limited to " + MAX_RANGE_MONTHS + " months");
+        }
+        MonthKey windowStart = from.minusMonths(12);
+
+        List<Object> args = new ArrayList<>();
+        String categoryFilter = "";
+        List<Long> filter = categoryIds == null ? Collections.emptyList() : categoryIds;
+        if (!filter.isEmpty()) {
+            categoryFilter = " AND category_id IN (" + String.join(",", Collections.nCopies(filter.size(), "?"))
+                    + ")";
+        }
+        for (int part = 0; part < 2; part++) {
+            args.add(userId);
+            args.add(windowStart.value());
+            args.add(to.value());
+            args.addAll(filter);
+        }
+        args.add(Date.valueOf(windowStart.firstDay()));
+        args.add(Date.valueOf(to.firstDay()));
+        args.add(from.value());
+
+        // Scoped to this read-only transaction
+        jdbcTemplate.execute("SET LOCAL statement_timeout = " + Math.max(1, timeoutMs));
+
+        List<CategoryTrendDto> trends = new ArrayList<>();
+        jdbcTemplate.query(String.format(TRENDS_SQL, categoryFilter), rs -> {
+            long categoryKey = rs.getLong(1);
+            Long categoryId = categoryKey == 0 ? null : categoryKey;
+            CategoryTrendDto current = trends.isEmpty() ? null : trends.get(trends.size() - 1);
+            if (current == null || !Objects.equals(current.getCategoryId(), categoryId)) {
+                String name = rs.getString(2);
+                current = CategoryTrendDto.builder()
+                        .categoryId(categoryId)
+                        .categoryName(name != null ? name : "Unknown")
+                        .points(new ArrayList<>())
+                        .build();
+                trends.add(current);
+            }
+            current.getPoints().add(TrendPointDto.builder()
+                    .monthKey(new MonthKey(rs.getInt(3)).toString())
+                    .planned(rs.getBigDecimal(4))
+                    .actual(rs.getBigDecimal(5))
+                    .rollingAverage3(rs.getBigDecimal(6))
+                    .rollingAverage12(rs.getBigDecimal(7))
+                    .yearOverYearDelta(rs.getBigDecimal(8))
+                    .yearOverYearPercent(rs.getBigDecimal(9))
+                    .build());
+        }, args.toArray());
+
+        log.debug("Trends {}..{} for user {}: {} categories", from, to, userId, trends.size());
+        return trends;
+    }
+}
@@ -1,5 +1,8 @@
 package com.expenze.service.impl;
 
+import com.expenze.cache.MonthPlanResponseCache;
+import com.expenze.cache.UserDataVersions;
+import com.expenze.coalesce.Coalesced;
 import com.expenze.dto.CategoryDto;
 import com.expenze.entity.Category;
 import com.expenze.mapper.CategoryMapper;
@@ -18,8 +21,11 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
+    private final MonthPlanResponseCache monthPlanCache;
+    private final UserDataVersions userDataVersions;
 
     @Override
+    @Coalesced
     public List<CategoryDto> getCategories(Long userId) {
         return categoryRepository.findByUserIdOrderBySortOrderAscNameAsc(userId).stream()
                 .map(categoryMapper::toDto)
@@ -37,6 +43,8 @@ public class CategoryServiceImpl implements CategoryService {
 
         Category category = categoryMapper.toEntity(dto);
         category = categoryRepository.save(category);
+        // No month shows it yet, but coalesced category reads must not miss it
+        userDataVersions.invalidateAfterCommit(userId);
         return category.getId();
     }
 
@@ -56,6 +64,8 @@ public class CategoryServiceImpl implements CategoryService {
         category.setIcon(dto.getIcon());
 
         categoryRepository.save(category);
+        // Month plans show category names and are ordered by category
+        monthPlanCache.invalidateUser(userId);
     }
 
     @Override
@@ -69,5 +79,6 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         categoryRepository.delete(category);
+        monthPlanCache.invalidateUser(userId);
     }
 }
@@ -1,5 +1,7 @@
 package com.expenze.service.impl;
 
+import com.expenze.cache.UserDataVersions;
+import com.expenze.coalesce.Coalesced;
 import com.expenze.dto.CategoryTemplateDto;
 import com.expenze.entity.Category;
 import com.expenze.entity.CategoryTemplate;
@@ -24,6 +26,8 @@ public class CategoryTemplateServiceImpl implements CategoryTemplateService {
 
     private final CategoryTemplateRepository templateRepository;
     private final CategoryRepository categoryRepository;
+    // Advanced on every template write, so a coalesced read never joins one started before it
+    private final UserDataVersions userDataVersions;
 
     @Override
     public List<CategoryTemplateDto> getTemplatesByCategory(Long userId, Long categoryId) {
@@ -31,14 +35,15 @@ public class CategoryTemplateServiceImpl implements CategoryTemplateService {
             log.debug("Fetching templates for user: {} and category: {}", userId, categoryId);
 
             // Validate category exists and belongs to user
-            validateCategoryOwnership(userId, categoryId);
+            Category category = validateCategoryOwnership(userId, categoryId);
 
             List<CategoryTemplate> templates = templateRepository
                     .findByUserIdAndCategoryIdAndIsActiveOrderBySortOrderAsc(userId, categoryId, 1);
 
             log.debug("Found {} templates for category: {}", templates.size(), categoryId);
+            Map<Long, String> categoryNames = Map.of(category.getId(), category.getName());
             return templates.stream()
-                    .map(this::toDto)
+                    .map(t -> toDto(t, categoryNames))
                     .collect(Collectors.toList());
         } catch (ResourceNotFoundException | UnauthorizedException e) {
             throw e;
@@ -49,6 +54,7 @@ public class CategoryTemplateServiceImpl implements CategoryTemplateService {
     }
 
     @Override
+    @Coalesced
     public Map<Long, List<CategoryTemplateDto>> getAllTemplatesGrouped(Long userId) {
         try {
             log.debug("Fetching all templates for user: {}", userId);
@@ -62,8 +68,12 @@ public class CategoryTemplateServiceImpl implements CategoryTemplateService {
 
             log.debug("Found {} total templates for user: {}", templates.size(), userId);
 
+            // One category lookup for all templates instead of one per template
+            Map<Long, String> categoryNames = categoryRepository.findByUserId(userId).stream()
+                    .collect(Collectors.toMap(Category::getId, Category::getName));
+
             return templates.stream()
-                    .map(this::toDto)
+                    .map(t -> toDto(t, categoryNames))
                     .collect(Collectors.groupingBy(CategoryTemplateDto::getCategoryId));
         } catch (BadRequestException e) {
             throw e;
@@ -105,6 +115,7 @@ public class CategoryTemplateServiceImpl implements CategoryTemplateService {
                     .build();
 
             template = templateRepository.save(template);
+            userDataVersions.invalidateAfterCommit(userId);
             log.info("Created category template: {} for user: {}", template.getId(), userId);
 
             return toDto(template);
@@ -160,6 +171,7 @@ public class CategoryTemplateServiceImpl implements CategoryTemplateService {
             }
 
             template = templateRepository.save(template);
+            userDataVersions.invalidateAfterCommit(userId);
             log.info("Updated category template: {}", id);
 
             return toDto(template);
@@ -193,6 +205,7 @@ public class CategoryTemplateServiceImpl implements CategoryTemplateService {
 
             template.setIsActive(0);
             templateRepository.save(template);
+            userDataVersions.invalidateAfterCommit(userId);
             log.info("Deleted category template: {}", id);
         } catch (BadRequestException | ResourceNotFoundException | UnauthorizedException e) {
             throw e;
@@ -218,15 +231,7 @@ public class CategoryTemplateServiceImpl implements CategoryTemplateService {
                     .collect(Collectors.toMap(Category::getName, c -> c, (a, b) -> a));
 
             // Default categories with their icons
-            Map<String, String> defaultCategoryIcons = new LinkedHashMap<>();
-            defaultCategoryIcons.put("Fuel", "⛽");
-            defaultCategoryIcons.put("Groceries", "🛒");
-            defaultCategoryIcons.put("Utilities", "💡");
-            defaultCategoryIcons.put("Transport", "🚲");
-            defaultCategoryIcons.put("Food", "🍽️");
-            defaultCategoryIcons.put("Shopping", "🛍️");
-            defaultCategoryIcons.put("Healthcare", "🏥");
-            defaultCategoryIcons.put("Entertainment", "🎭");
+            Map<String, String> defaultCategoryIcons = getDefaultCategoryIcons();
 
             // Ensure categories exist
             int categoriesCreated = 0;
@@ -250,15 +255,21 @@ public class CategoryTemplateServiceImpl implements CategoryTemplateService {
             // Default templates
             Map<String, List<String>> defaultTemplates = getDefaultTemplates();
 
+            // Existing templates of all categories, loaded once
+            Map<Long, List<CategoryTemplate>> existingByCategory = templateRepository
+                    .findByUserIdAndIsActiveOrderBySortOrderAsc(userId, 1).stream()
+                    .collect(Collectors.groupingBy(CategoryTemplate::getCategoryId));
+
             int templatesCreated = 0;
+            List<CategoryTemplate> newTemplates = new ArrayList<>();
             for (Map.Entry<String, List<String>> entry : defaultTemplates.entrySet()) {
                 String categoryName = entry.getKey();
                 Category category = categoryNameMap.get(categoryName);
 
                 if (category != null) {
                     // Check existing templates for THIS category to avoid duplicates
-                    List<CategoryTemplate> existingTemplates = templateRepository
-                            .findByUserIdAndCategoryIdAndIsActiveOrderBySortOrderAsc(userId, category.getId(), 1);
+                    List<CategoryTemplate> existingTemplates = existingByCategory
+                            .getOrDefault(category.getId(), Collections.emptyList());
 
                     Set<String> existingOptions = existingTemplates.stream()
                             .map(t -> t.getSubOption().toLowerCase())
@@ -275,13 +286,16 @@ public class CategoryTemplateServiceImpl implements CategoryTemplateService {
                                     .isActive(1)
                                     .build();
 
-                            templateRepository.save(template);
+                            newTemplates.add(template);
                             templatesCreated++;
                         }
                     }
                 }
             }
 
+            templateRepository.saveAll(newTemplates);
+            userDataVersions.invalidateAfterCommit(userId);
+
             log.info("Initialization complete for user {}: Created {} categories and {} templates",
                     userId, categoriesCreated, templatesCreated);
         } catch (BadRequestException e) {
@@ -310,7 +324,7 @@ public class CategoryTemplateServiceImpl implements CategoryTemplateService {
         }
     }
 
-    private void validateCategoryOwnership(Long userId, Long categoryId) {
+    private Category validateCategoryOwnership(Long userId, Long categoryId) {
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "id", categoryId));
 
@@ -319,6 +333,7 @@ public class CategoryTemplateServiceImpl implements CategoryTemplateService {
                     userId, categoryId, category.getUserId());
             throw new UnauthorizedException("You don't have permission to access this category");
         }
+        return category;
     }
 
     private CategoryTemplateDto toDto(CategoryTemplate entity) {
@@ -333,7 +348,7 @@ public class CategoryTemplateServiceImpl implements CategoryTemplateService {
                 .sortOrder(entity.getSortOrder())
                 .build();
 
-        // Enrich with category name
+        // Enrich with category name (single-entity path; lists use the pre-loaded name map)
         try {
             categoryRepository.findById(entity.getCategoryId())
                     .ifPresent(cat -> dto.setCategoryName(cat.getName()));
@@ -345,7 +360,33 @@ public class CategoryTemplateServiceImpl implements CategoryTemplateService {
         return dto;
     }
 
-    private Map<String, List<String>> getDefaultTemplates() {
+    private CategoryTemplateDto toDto(CategoryTemplate entity, Map<Long, String> categoryNames) {
+        return CategoryTemplateDto.builder()
+                .id(entity.getId())
+                .categoryId(entity.getCategoryId())
+                .categoryName(categoryNames.get(entity.getCategoryId()))
+                .subOption(entity.getSubOption())
+                .sortOrder(entity.getSortOrder())
+                .build();
+    }
+
+    // Also used by the synthetic data generator so generated users look like initialized ones
+    public static Map<String, String> getDefaultCategoryIcons() {
+        Map<String, String> icons = new LinkedHashMap<>();
+
+        icons.put("Fuel", "⛽");
+        icons.put("Groceries", "🛒");
+        icons.put("Utilities", "💡");
+        icons.put("Transport", "🚲");
+        icons.put("Food", "🍽️");
+        icons.put("Shopping", "🛍️");
+        icons.put("Healthcare", "🏥");
+        icons.put("Entertainment", "🎭");
+
+        return icons;
+    }
+
+    public static Map<String, List<String>> getDefaultTemplates() {
         Map<String, List<String>> defaults = new LinkedHashMap<>();
 
         defaults.put("Fuel", Arrays.asList("Bike", "Car", "Scooter"));
@@ -2,10 +2,16 @@ package com.expenze.service.impl;
 
 import com.expenze.service.EmailService;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+/**
+ * Sends account emails. Each send is {@code @Async}, so SMTP round trips don't hold up the
+ * registration and password-reset requests that trigger them; failures are logged and counted.
+ */
 @Service
 @Slf4j
 public class EmailServiceImpl implements EmailService {
@@ -13,10 +19,14 @@ public class EmailServiceImpl implements EmailService {
     @Autowired
     private org.springframework.mail.javamail.JavaMailSender javaMailSender;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @org.springframework.beans.factory.annotation.Value("${spring.mail.username}")
     private String senderEmail;
 
     @Override
+    @Async
     public void sendOtpEmail(String to, String otp, String username, int timeoutMinutes) {
         try {
             org.springframework.mail.SimpleMailMessage message = new org.springframework.mail.SimpleMailMessage();
@@ -29,8 +39,10 @@ public class EmailServiceImpl implements EmailService {
                     "Best Regards,\nExpenze Team");
 
             javaMailSender.send(message);
+            countEmail("otp", "sent");
             log.info("Email sent successfully to {}", to);
         } catch (Exception e) {
+            countEmail("otp", "failed");
             log.error("Failed to send email to {}", to, e);
             // Fallback logging for debug just in case
             log.info("FALLBACK: OTP for {}: {}", to, otp);
@@ -38,6 +50,7 @@ public class EmailServiceImpl implements EmailService {
     }
 
     @Override
+    @Async
     public void sendPasswordResetEmail(String to, String link) {
         try {
             org.springframework.mail.SimpleMailMessage message = new org.springframework.mail.SimpleMailMessage();
@@ -50,10 +63,16 @@ public class EmailServiceImpl implements EmailService {
                     "Best Regards,\nExpenze Team");
 
             javaMailSender.send(message);
+            countEmail("password_reset", "sent");
             log.info("Password reset email sent successfully to {}", to);
         } catch (Exception e) {
+            countEmail("password_reset", "failed");
             log.error("Failed to send password reset email to {}", to, e);
             log.info("FALLBACK: Reset Link for {}: {}", to, link);
         }
     }
+
+    private void countEmail(String type, String outcome) {
+        meterRegistry.counter("expenze.emails", "type", type, "outcome", outcome).increment();
+    }
 }
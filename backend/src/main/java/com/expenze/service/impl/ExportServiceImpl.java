@@ -0,0 +1,201 @@
+package com.expenze.service.impl;
+
+import com.expenze.db.DbPool;
+import com.expenze.db.Workload;
+import com.expenze.entity.Category;
+import com.expenze.entity.MonthPlan;
+import com.expenze.entity.PaymentItem;
+import com.expenze.entity.Salary;
+import com.expenze.export.ExportFormat;
+import com.expenze.export.ExportWriter;
+import com.expenze.repository.CategoryRepository;
+import com.expenze.repository.MonthPlanRepository;
+import com.expenze.repository.SalaryRepository;
+import com.expenze.service.ExportService;
+import com.expenze.service.MonthArchiveService;
+import com.expenze.util.MonthKey;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    // Ordered like the month plan view; forward-only so the driver can stream it
+    private static final String ITEMS_SQL = """
+            SELECT pi.month_num, pi.category_id, pi.name, pi.planned_amount, pi.actual_amount,
+                   pi.is_paid, pi.priority, pi.notes
+            FROM payment_items pi
+            LEFT JOIN categories c ON c.id = pi.category_id
+            WHERE pi.user_id = ? AND pi.month_num BETWEEN ? AND ?
+            ORDER BY pi.month_num, c.sort_order NULLS LAST, pi.name""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CategoryRepository categoryRepository;
+    private final MonthPlanRepository monthPlanRepository;
+    private final SalaryRepository salaryRepository;
+    private final MonthArchiveService monthArchiveService;
+
+    @Value("${expenze.export.fetch-size:500}")
+    private int fetchSize;
+
+    @Override
+    @Transactional(readOnly = true)
+    @DbPool(Workload.REPORTING)
+    public void export(Long userId, MonthKey from, MonthKey to, ExportFormat format, OutputStream out)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        ExportWriter export = format.newWriter(writer);
+
+        // Categories, month plans and salaries are bounded per user (one row per month at most);
+        // only items are streamed
+        Map<Long, String> categoryNames = new HashMap<>();
+        for (Category category : categoryRepository.findByUserIdOrderBySortOrderAscNameAsc(userId)) {
+            categoryNames.put(category.getId(), category.getName());
+            export.category(category.getName(), category.getSortOrder(), category.getIsActive());
+        }
+        // Get the first bytes out before the item query runs
+        writer.flush();
+
+        TreeMap<MonthKey, MonthState> months = new TreeMap<>();
+        for (MonthPlan plan : monthPlanRepository.findByUserIdAndMonthBetweenOrderByMonthAsc(userId, from, to)) {
+            months.computeIfAbsent(plan.getMonth(), MonthState::new).plan = plan;
+        }
+        for (Salary salary : salaryRepository.findByUserIdAndMonthBetweenOrderByMonthAsc(userId, from, to)) {
+            months.computeIfAbsent(salary.getMonth(), MonthState::new).salary = salary;
+        }
+
+        MonthMerger merger = new MonthMerger(export, months.values().iterator(), categoryNames);
+        long[] items = { 0 };
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(ITEMS_SQL, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, userId);
+            ps.setInt(2, from.value());
+            ps.setInt(3, to.value());
+            return ps;
+        }, rs -> {
+            MonthKey month = new MonthKey(rs.getInt(1));
+            long categoryId = rs.getLong(2);
+            String category = rs.wasNull() ? null : categoryNames.get(categoryId);
+            int paid = rs.getInt(6);
+            Integer isPaid = rs.wasNull() ? null : paid;
+            try {
+                merger.advanceTo(month);
+                export.item(month, category, rs.getString(3), rs.getBigDecimal(4), rs.getBigDecimal(5), isPaid,
+                        rs.getString(7), rs.getString(8));
+            } catch (IOException e) {
+                // Client went away; abort the query instead of reading the rest of the cursor
+                throw new UncheckedIOException(e);
+            }
+            items[0]++;
+        });
+        merger.finish();
+        writer.flush();
+        log.info("Exported {} items of months {}..{} for user {} as {}", items[0], from, to, userId, format);
+    }
+
+    private static final class MonthState {
+        final MonthKey month;
+        MonthPlan plan;
+        Salary salary;
+
+        MonthState(MonthKey month) {
+            this.month = month;
+        }
+    }
+
+    /**
+     * Interleaves the item cursor with the per-month records: each month's header, then its
+     * items (from the cursor, or the archive segment for archived months), then its salary.
+     */
+    private final class MonthMerger {
+
+        private final ExportWriter export;
+        private final Iterator<MonthState> months;
+        private final Map<Long, String> categoryNames;
+        private MonthState pending;
+        private MonthState open;
+
+        MonthMerger(ExportWriter export, Iterator<MonthState> months, Map<Long, String> categoryNames) {
+            this.export = export;
+            this.months = months;
+            this.categoryNames = categoryNames;
+            this.pending = months.hasNext() ? months.next() : null;
+        }
+
+        void advanceTo(MonthKey month) throws IOException {
+            if (open != null && open.month.equals(month)) {
+                return;
+            }
+            close();
+            // Months before this one that have no items in the cursor
+            while (pending != null && pending.month.compareTo(month) < 0) {
+                openMonth(takePending());
+                close();
+            }
+            if (pending != null && pending.month.equals(month)) {
+                openMonth(takePending());
+            } else {
+                openMonth(new MonthState(month));
+            }
+        }
+
+        void finish() throws IOException {
+            close();
+            while (pending != null) {
+                openMonth(takePending());
+                close();
+            }
+        }
+
+        private MonthState takePending() {
+            MonthState taken = pending;
+            pending = months.hasNext() ? months.next() : null;
+            return taken;
+        }
+
+        private void openMonth(MonthState state) throws IOException {
+            open = state;
+            MonthKey month = state.month;
+            MonthPlan plan = state.plan;
+            boolean archived = plan != null && plan.getArchivedAt() != null;
+            export.month(month, archived);
+            if (archived) {
+                for (PaymentItem item : monthArchiveService.loadArchivedItems(plan)) {
+                    export.item(month, categoryNames.get(item.getCategoryId()), item.getName(),
+                            item.getPlannedAmount(), item.getActualAmount(), item.getIsPaid(), item.getPriority(),
+                            item.getNotes());
+                }
+            }
+        }
+
+        private void close() throws IOException {
+            if (open != null && open.salary != null) {
+                export.salary(open.month, open.salary.getAmount());
+            }
+            open = null;
+        }
+    }
+}
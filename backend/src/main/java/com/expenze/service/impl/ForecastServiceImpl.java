@@ -0,0 +1,210 @@
+package com.expenze.service.impl;
+
+import com.expenze.cache.UserDataVersions;
+import com.expenze.cache.UserDataVersions.Scope;
+import com.expenze.db.DbPool;
+import com.expenze.db.Workload;
+import com.expenze.dto.ForecastDto;
+import com.expenze.dto.ForecastMonthDto;
+import com.expenze.entity.Salary;
+import com.expenze.recurrence.Occurrences;
+import com.expenze.recurrence.RecurrenceEngine;
+import com.expenze.repository.SalaryRepository;
+import com.expenze.service.ForecastService;
+import com.expenze.util.Money;
+import com.expenze.util.MoneyAccumulator;
+import com.expenze.util.MonthKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cash-flow forecast from three loads: the user's schedule index (usually cached by
+ * {@link RecurrenceEngine}), one aggregate over the history window's items and the salaries
+ * from the history window to the horizon. Every month is then projected in memory.
+ *
+ * Results are kept per user, tagged with the user's {@link UserDataVersions} generations
+ * of items, regular payments and salaries, so a forecast is served until a write to any of
+ * them commits. A cached forecast also answers shorter horizons from the same
+ * month. Entries are local to this instance.
+ */
+@Slf4j
+@Service
+public class ForecastServiceImpl implements ForecastService {
+
+    // Per item, the amount spent, or the planned one when nothing is recorded yet
+    private static final String ITEMS_SQL = """
+            SELECT month_num, name, category_id,
+                   SUM(CASE WHEN actual_amount <> 0 THEN actual_amount ELSE planned_amount END)
+            FROM payment_items
+            WHERE user_id = ? AND month_num BETWEEN ? AND ?
+            GROUP BY month_num, name, category_id""";
+
+    private final RecurrenceEngine recurrenceEngine;
+    private final SalaryRepository salaryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserDataVersions versions;
+    private final int maxMonths;
+    private final int historyMonths;
+    private final int maxUsers;
+
+    // Guarded by this
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    public ForecastServiceImpl(RecurrenceEngine recurrenceEngine, SalaryRepository salaryRepository,
+            JdbcTemplate jdbcTemplate, UserDataVersions versions,
+            @Value("${expenze.forecast.max-months:36}") int maxMonths,
+            @Value("${expenze.forecast.history-months:6}") int historyMonths,
+            @Value("${expenze.forecast.cache-users:5000}") int maxUsers) {
+        this.recurrenceEngine = recurrenceEngine;
+        this.salaryRepository = salaryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.versions = versions;
+        this.maxMonths = maxMonths;
+        this.historyMonths = Math.max(1, historyMonths);
+        this.maxUsers = maxUsers;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @DbPool(Workload.REPORTING)
+    public ForecastDto getForecast(Long userId, int months) {
+        if (months < 1 || months > maxMonths) {
+            throw new IllegalArgumentException("months must be between 1 and " + maxMonths);
+        }
+        MonthKey start = MonthKey.now();
+        long version = version(userId);
+        synchronized (this) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.version == version && entry.start.equals(start)
+                    && entry.forecast.getMonths().size() >= months) {
+                return truncate(entry.forecast, months);
+            }
+        }
+
+        ForecastDto forecast = compute(userId, start, months);
+        synchronized (this) {
+            // A write committed while computing may or may not be reflected
+            if (version(userId) == version) {
+                entries.put(userId, new Entry(version, start, forecast));
+                Iterator<Entry> eldest = entries.values().iterator();
+                while (entries.size() > maxUsers && eldest.hasNext()) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+        return forecast;
+    }
+
+    // Generations only grow, so the sum moves whenever any of them does
+    private long version(Long userId) {
+        return versions.current(Scope.LEDGER, userId) + versions.current(Scope.REGULAR_PAYMENTS, userId)
+                + versions.current(Scope.SALARIES, userId);
+    }
+
+    private ForecastDto compute(Long userId, MonthKey start, int months) {
+        MonthKey historyFrom = start.minusMonths(historyMonths);
+        MonthKey historyTo = start.minusMonths(1);
+        MonthKey end = start.plusMonths(months - 1);
+
+        // Regular payments due in each month, history and horizon together
+        Map<MonthKey, List<Occurrences>> due = recurrenceEngine.expand(userId, historyFrom, end);
+
+        // Manual items: those that are not a regular payment due in their month
+        Map<MonthKey, Set<List<Object>>> recurringKeys = new HashMap<>();
+        MoneyAccumulator manualTotal = new MoneyAccumulator();
+        Set<Integer> activeMonths = new HashSet<>();
+        jdbcTemplate.query(ITEMS_SQL, rs -> {
+            MonthKey month = new MonthKey(rs.getInt(1));
+            activeMonths.add(month.value());
+            long categoryId = rs.getLong(3);
+            List<Object> key = Arrays.asList(rs.getString(2), rs.wasNull() ? null : categoryId);
+            if (!recurringKeys.computeIfAbsent(month, m -> keys(due.get(m))).contains(key)) {
+                manualTotal.add(rs.getBigDecimal(4));
+            }
+        }, userId, historyFrom.value(), historyTo.value());
+        // Averaged over months that have items, so a new user's empty months do not dilute it
+        long manualAverage = activeMonths.isEmpty() ? 0L
+                : Math.round((double) manualTotal.minorUnits() / activeMonths.size());
+
+        Map<MonthKey, BigDecimal> salaries = new HashMap<>();
+        BigDecimal expectedSalary = BigDecimal.ZERO;
+        for (Salary salary : salaryRepository.findByUserIdAndMonthBetweenOrderByMonthAsc(userId, historyFrom, end)) {
+            salaries.put(salary.getMonth(), salary.getAmount());
+            if (salary.getMonth().compareTo(start) < 0) {
+                expectedSalary = salary.getAmount();
+            }
+        }
+
+        List<ForecastMonthDto> projected = new ArrayList<>(months);
+        MoneyAccumulator cumulative = new MoneyAccumulator();
+        for (MonthKey month = start; month.compareTo(end) <= 0; month = month.plusMonths(1)) {
+            MoneyAccumulator recurring = new MoneyAccumulator();
+            for (Occurrences occurrences : due.get(month)) {
+                recurring.add(occurrences.plannedAmount());
+            }
+            long outflow = Math.addExact(recurring.minorUnits(), manualAverage);
+            BigDecimal recorded = salaries.get(month);
+            long income = Money.toMinorUnits(recorded != null ? recorded : expectedSalary);
+            long net = income - outflow;
+            cumulative.addMinorUnits(net);
+            projected.add(ForecastMonthDto.builder()
+                    .monthKey(month.toString())
+                    .recurringOutflow(recurring.toBigDecimal())
+                    .manualOutflow(Money.fromMinorUnits(manualAverage))
+                    .totalOutflow(Money.fromMinorUnits(outflow))
+                    .income(Money.fromMinorUnits(income))
+                    .incomeRecorded(recorded != null)
+                    .net(Money.fromMinorUnits(net))
+                    .cumulativeNet(cumulative.toBigDecimal())
+                    .build());
+        }
+
+        log.debug("Forecast {}..{} for user {}: {} active history months", start, end, userId,
+                activeMonths.size());
+        return ForecastDto.builder()
+                .historyFrom(historyFrom.toString())
+                .historyTo(historyTo.toString())
+                .expectedSalary(expectedSalary.setScale(Money.SCALE, RoundingMode.HALF_EVEN))
+                .months(projected)
+                .build();
+    }
+
+    private static Set<List<Object>> keys(List<Occurrences> due) {
+        Set<List<Object>> keys = new HashSet<>();
+        if (due != null) {
+            for (Occurrences occurrences : due) {
+                keys.add(Arrays.asList(occurrences.schedule().name(), occurrences.schedule().categoryId()));
+            }
+        }
+        return keys;
+    }
+
+    // Cached forecasts are shared, so callers get their own copy of the month list
+    private static ForecastDto truncate(ForecastDto forecast, int months) {
+        return ForecastDto.builder()
+                .historyFrom(forecast.getHistoryFrom())
+                .historyTo(forecast.getHistoryTo())
+                .expectedSalary(forecast.getExpectedSalary())
+                .months(new ArrayList<>(forecast.getMonths().subList(0, months)))
+                .build();
+    }
+
+    private record Entry(long version, MonthKey start, ForecastDto forecast) {
+    }
+}
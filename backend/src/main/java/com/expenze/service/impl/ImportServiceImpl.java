@@ -0,0 +1,141 @@
+package com.expenze.service.impl;
+
+import com.expenze.dto.ImportProgressDto;
+import com.expenze.exception.BadRequestException;
+import com.expenze.exception.ResourceNotFoundException;
+import com.expenze.importer.ImportFormat;
+import com.expenze.importer.ImportJob;
+import com.expenze.importer.StatementImporter;
+import com.expenze.service.ImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs statement imports on the application task executor. The upload is first copied to a
+ * temporary file, since the multipart request (and its storage) ends with the POST; the
+ * import then streams from that file. Progress is kept in memory on this instance for an
+ * hour after an import finishes.
+ */
+@Slf4j
+@Service
+public class ImportServiceImpl implements ImportService {
+
+    private static final long RETAIN_FINISHED_HOURS = 1;
+
+    private final StatementImporter statementImporter;
+    private final AsyncTaskExecutor taskExecutor;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    // At most one unfinished import per user, claimed atomically
+    private final Map<Long, ImportJob> running = new ConcurrentHashMap<>();
+
+    public ImportServiceImpl(StatementImporter statementImporter,
+            @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor) {
+        this.statementImporter = statementImporter;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @Override
+    public ImportProgressDto start(Long userId, MultipartFile file, String format, String dateFormat)
+            throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new BadRequestException("Statement file is empty");
+        }
+        ImportFormat importFormat = ImportFormat.of(format, file.getOriginalFilename());
+        DateTimeFormatter csvDateFormat = DateTimeFormatter.ofPattern(dateFormat);
+        pruneFinished();
+        ImportJob job = new ImportJob(userId, file.getOriginalFilename(), importFormat);
+        if (running.merge(userId, job, (current, mine) -> current.isFinished() ? mine : current) != job) {
+            throw new BadRequestException("An import is already running for this account");
+        }
+
+        Path upload;
+        try {
+            upload = Files.createTempFile("expenze-import-", "." + importFormat.name().toLowerCase());
+            try {
+                file.transferTo(upload);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(upload);
+                throw e;
+            }
+        } catch (IOException | RuntimeException e) {
+            running.remove(userId, job);
+            throw e;
+        }
+
+        jobs.put(job.getId(), job);
+        log.info("Import {} started for user {}: {} ({} bytes, {})", job.getId(), userId,
+                file.getOriginalFilename(), file.getSize(), importFormat);
+        try {
+            taskExecutor.execute(() -> run(job, upload, csvDateFormat));
+        } catch (RuntimeException e) {
+            job.fail("Import could not be started");
+            running.remove(userId, job);
+            Files.deleteIfExists(upload);
+            throw e;
+        }
+        return toDto(job);
+    }
+
+    @Override
+    public ImportProgressDto getProgress(Long userId, String importId) {
+        ImportJob job = jobs.get(importId);
+        // Someone else's import reads as missing rather than forbidden
+        if (job == null || !job.getUserId().equals(userId)) {
+            throw new ResourceNotFoundException("Import", "id", importId);
+        }
+        return toDto(job);
+    }
+
+    private void run(ImportJob job, Path upload, DateTimeFormatter csvDateFormat) {
+        try {
+            statementImporter.importFile(job, upload, csvDateFormat);
+            job.complete();
+            log.info("Import {} completed: {} rows read, {} imported, {} duplicates, {} invalid",
+                    job.getId(), job.getRowsRead(), job.getImported(), job.getDuplicates(), job.getInvalid());
+        } catch (Exception e) {
+            log.error("Import {} failed after {} rows", job.getId(), job.getRowsRead(), e);
+            job.fail(e instanceof IllegalArgumentException ? e.getMessage() : "Import failed: " + e.getMessage());
+        } finally {
+            running.remove(job.getUserId(), job);
+            try {
+                Files.deleteIfExists(upload);
+            } catch (IOException e) {
+                log.warn("Could not delete import upload {}: {}", upload, e.getMessage());
+            }
+        }
+    }
+
+    private void pruneFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(RETAIN_FINISHED_HOURS);
+        jobs.values().removeIf(j -> j.isFinished() && j.getFinishedAt().isBefore(cutoff));
+    }
+
+    private static ImportProgressDto toDto(ImportJob job) {
+        return ImportProgressDto.builder()
+                .id(job.getId())
+                .filename(job.getFilename())
+                .format(job.getFormat().name())
+                .status(job.getStatus().name())
+                .rowsRead(job.getRowsRead().get())
+                .imported(job.getImported().get())
+                .duplicates(job.getDuplicates().get())
+                .skippedCredits(job.getSkippedCredits().get())
+                .skippedArchived(job.getSkippedArchived().get())
+                .invalid(job.getInvalid().get())
+                .errors(job.getErrors())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
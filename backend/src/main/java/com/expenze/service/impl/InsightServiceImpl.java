@@ -0,0 +1,49 @@
+package com.expenze.service.impl;
+
+import com.expenze.dto.InsightDto;
+import com.expenze.entity.Insight;
+import com.expenze.repository.InsightRepository;
+import com.expenze.service.InsightService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class InsightServiceImpl implements InsightService {
+
+    static final int MAX_LIMIT = 100;
+
+    private final InsightRepository insightRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<InsightDto> getInsights(Long userId, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return insightRepository
+                .findByUserIdOrderByMonthDescScoreDesc(userId, PageRequest.of(0, Math.min(limit, MAX_LIMIT)))
+                .stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    private InsightDto toDto(Insight insight) {
+        return InsightDto.builder()
+                .id(insight.getId())
+                .monthKey(insight.getMonth().toString())
+                .categoryId(insight.getCategoryId())
+                .kind(insight.getKind())
+                .actualAmount(insight.getActualAmount())
+                .baselineMean(insight.getBaselineMean())
+                .score(insight.getScore())
+                .message(insight.getMessage())
+                .createdAt(insight.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,196 @@
+package com.expenze.service.impl;
+
+import com.expenze.archive.MonthRollupStore;
+import com.expenze.archive.MonthSegmentStore;
+import com.expenze.cache.MonthPlanResponseCache;
+import com.expenze.entity.MonthPlan;
+import com.expenze.entity.PaymentItem;
+import com.expenze.repository.MonthPlanRepository;
+import com.expenze.repository.PaymentItemRepository;
+import com.expenze.service.MonthArchiveService;
+import com.expenze.util.MonthKey;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class MonthArchiveServiceImpl implements MonthArchiveService {
+
+    // Segments written before ids were kept may lack one; those get a new id
+    private static final String RESTORE_SQL = "INSERT INTO payment_items (id, user_id, month_plan_id, month_num, "
+            + "category_id, name, planned_amount, actual_amount, is_paid, notes, priority, import_hash) "
+            + "VALUES (COALESCE(?, nextval('payment_items_id_seq')), ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final MonthPlanRepository monthPlanRepository;
+    private final PaymentItemRepository paymentItemRepository;
+    private final MonthSegmentStore segmentStore;
+    private final MonthRollupStore rollupStore;
+    private final TransactionTemplate transactionTemplate;
+    private final MonthPlanResponseCache monthPlanCache;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${expenze.archive.after-months:12}")
+    private int archiveAfterMonths;
+
+    @Override
+    public int archiveClosedMonths() {
+        MonthKey cutoff = MonthKey.now().minusMonths(archiveAfterMonths);
+        List<MonthPlan> candidates = monthPlanRepository.findTop200ByMonthLessThanAndArchivedAtIsNullOrderByMonthAsc(cutoff);
+
+        int archived = 0;
+        for (MonthPlan candidate : candidates) {
+            try {
+                Boolean done = transactionTemplate.execute(status -> archive(candidate.getId()));
+                if (Boolean.TRUE.equals(done))
+                    archived++;
+            } catch (Exception e) {
+                log.error("Failed to archive month plan {}: {}", candidate.getId(), e.getMessage(), e);
+            }
+        }
+        log.info("Archived {} of {} candidate months older than {}", archived, candidates.size(), cutoff);
+        return archived;
+    }
+
+    private boolean archive(Long monthPlanId) {
+        MonthPlan plan = monthPlanRepository.findById(monthPlanId).orElse(null);
+        if (plan == null || plan.getArchivedAt() != null)
+            return false;
+
+        List<PaymentItem> items = paymentItemRepository.findByUserIdAndMonth(plan.getUserId(), plan.getMonth())
+                .stream()
+                .filter(i -> plan.getId().equals(i.getMonthPlanId()))
+                .collect(Collectors.toList());
+
+        // Segment first: if the transaction rolls back we only leave a file that the next run overwrites
+        segmentStore.write(plan.getUserId(), plan.getMonth(), items);
+        rollupStore.write(plan.getUserId(), plan.getMonth(), items);
+
+        // Delete exactly what was written; a row inserted concurrently stays hot and is
+        // picked up again when the month is restored
+        if (!items.isEmpty()) {
+            List<Long> ids = items.stream().map(PaymentItem::getId).collect(Collectors.toList());
+            paymentItemRepository.deleteByMonthAndIdIn(plan.getMonth(), ids);
+        }
+
+        plan.setArchivedAt(LocalDateTime.now());
+        setItemRange(plan, items);
+        monthPlanRepository.save(plan);
+        monthPlanCache.invalidate(plan.getUserId(), plan.getMonth());
+        log.debug("Archived month {} for user {} ({} items)", plan.getMonth(), plan.getUserId(), items.size());
+        return true;
+    }
+
+    @Override
+    public int rollUpArchivedMonths() {
+        List<MonthPlan> plans = monthPlanRepository.findTop200ArchivedWithoutRollups();
+        int rolledUp = 0;
+        for (MonthPlan plan : plans) {
+            try {
+                List<PaymentItem> items = segmentStore.read(plan.getUserId(), plan.getMonth());
+                transactionTemplate.executeWithoutResult(
+                        status -> rollupStore.write(plan.getUserId(), plan.getMonth(), items));
+                rolledUp++;
+            } catch (Exception e) {
+                log.error("Failed to roll up archived month {} of user {}: {}", plan.getMonth(), plan.getUserId(),
+                        e.getMessage(), e);
+            }
+        }
+        if (!plans.isEmpty())
+            log.info("Rolled up {} of {} archived months without rollups", rolledUp, plans.size());
+        return rolledUp;
+    }
+
+    @Override
+    public int indexArchivedMonths() {
+        List<MonthPlan> plans =
+                monthPlanRepository.findTop200ByArchivedAtIsNotNullAndArchivedMinItemIdIsNullOrderByIdAsc();
+        int indexed = 0;
+        for (MonthPlan plan : plans) {
+            try {
+                setItemRange(plan, segmentStore.read(plan.getUserId(), plan.getMonth()));
+                monthPlanRepository.save(plan);
+                indexed++;
+            } catch (Exception e) {
+                log.error("Failed to index archived month {} of user {}: {}", plan.getMonth(), plan.getUserId(),
+                        e.getMessage(), e);
+            }
+        }
+        if (!plans.isEmpty())
+            log.info("Recorded item ranges for {} of {} archived months", indexed, plans.size());
+        return indexed;
+    }
+
+    @Override
+    public List<PaymentItem> loadArchivedItems(MonthPlan plan) {
+        return segmentStore.read(plan.getUserId(), plan.getMonth());
+    }
+
+    @Override
+    public Optional<MonthPlan> findArchivedPlanOfItem(Long userId, Long itemId) {
+        // Usually one candidate; ranges only overlap when an old month got items added late
+        for (MonthPlan plan : monthPlanRepository.findArchivedCandidatesForItem(userId, itemId)) {
+            for (PaymentItem item : segmentStore.read(userId, plan.getMonth())) {
+                if (itemId.equals(item.getId()))
+                    return Optional.of(plan);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void restore(MonthPlan plan) {
+        if (plan.getArchivedAt() == null)
+            return;
+
+        log.info("Restoring archived month {} for user {}", plan.getMonth(), plan.getUserId());
+        // Items keep their ids, which clients may hold from the archived view
+        List<Object[]> rows = segmentStore.read(plan.getUserId(), plan.getMonth()).stream()
+                .map(i -> new Object[] { i.getId(), i.getUserId(), plan.getId(), plan.getMonth().value(),
+                        i.getCategoryId(), i.getName(), i.getPlannedAmount(), i.getActualAmount(), i.getIsPaid(),
+                        i.getNotes(), i.getPriority(), i.getImportHash() })
+                .collect(Collectors.toList());
+        if (!rows.isEmpty())
+            jdbcTemplate.batchUpdate(RESTORE_SQL, rows);
+        rollupStore.delete(plan.getUserId(), plan.getMonth());
+
+        plan.setArchivedAt(null);
+        plan.setArchivedMinItemId(null);
+        plan.setArchivedMaxItemId(null);
+        monthPlanRepository.save(plan);
+        monthPlanCache.invalidate(plan.getUserId(), plan.getMonth());
+
+        // Only drop the segment once the rows are durably back in the table
+        Long userId = plan.getUserId();
+        MonthKey month = plan.getMonth();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                segmentStore.delete(userId, month);
+            }
+        });
+    }
+
+    // An empty month gets 0..0, which no item id falls in, so it is not indexed again
+    private static void setItemRange(MonthPlan plan, List<PaymentItem> items) {
+        LongSummaryStatistics ids = items.stream().filter(i -> i.getId() != null)
+                .mapToLong(PaymentItem::getId).summaryStatistics();
+        plan.setArchivedMinItemId(ids.getCount() == 0 ? 0L : ids.getMin());
+        plan.setArchivedMaxItemId(ids.getCount() == 0 ? 0L : ids.getMax());
+    }
+}
@@ -1,20 +1,33 @@
 package com.expenze.service.impl;
 
+import com.expenze.cache.MonthPlanResponseCache;
+import com.expenze.cache.UserDataVersions;
+import com.expenze.coalesce.Coalesced;
+import com.expenze.db.DbPool;
+import com.expenze.db.Workload;
 import com.expenze.dto.MonthPlanDto;
 import com.expenze.dto.PaymentItemDto;
 import com.expenze.entity.*;
+import com.expenze.exception.ResourceNotFoundException;
+import com.expenze.ledger.LedgerCube;
+import com.expenze.ledger.LedgerCubeCache;
 import com.expenze.mapper.PaymentItemMapper;
+import com.expenze.recurrence.Occurrences;
+import com.expenze.recurrence.RecurrenceEngine;
+import com.expenze.recurrence.Schedule;
 import com.expenze.repository.*;
+import com.expenze.service.MonthArchiveService;
 import com.expenze.service.MonthPlanService;
+import com.expenze.util.Money;
+import com.expenze.util.MoneyAccumulator;
+import com.expenze.util.MonthKey;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -25,24 +38,39 @@ public class MonthPlanServiceImpl implements MonthPlanService {
 
     private final MonthPlanRepository monthPlanRepository;
     private final PaymentItemRepository paymentItemRepository;
-    private final RegularPaymentRepository regularPaymentRepository;
+    private final RecurrenceEngine recurrenceEngine;
     private final SalaryRepository salaryRepository;
     private final PaymentItemMapper paymentItemMapper;
     private final CategoryRepository categoryRepository;
+    private final MonthArchiveService monthArchiveService;
+    private final MeterRegistry meterRegistry;
+    private final MonthPlanResponseCache monthPlanCache;
+    private final LedgerCubeCache ledgerCubeCache;
+    private final UserDataVersions userDataVersions;
 
     @Override
+    @Coalesced
     @Transactional
-    public MonthPlanDto getMonthPlan(Long userId, String monthKey) {
+    public MonthPlanDto getMonthPlan(Long userId, MonthKey month) {
         // Always ensure plan exists and is populated with regular payments
-        generateMonthPlan(userId, monthKey);
+        generateMonthPlan(userId, month);
 
-        MonthPlan plan = monthPlanRepository.findByUserIdAndMonthKey(userId, monthKey)
+        MonthPlan plan = monthPlanRepository.findByUserIdAndMonth(userId, month)
                 .orElseThrow(() -> new RuntimeException("Failed to generate plan"));
 
-        List<PaymentItem> items = paymentItemRepository.findAllByMonthPlanIdWithCategoryOrder(plan.getId(), userId);
+        List<Category> categories = categoryRepository.findByUserId(userId);
+        boolean archived = plan.getArchivedAt() != null;
+
+        List<PaymentItem> items;
+        if (archived) {
+            items = sortByCategoryOrder(monthArchiveService.loadArchivedItems(plan), categories);
+        } else {
+            items = paymentItemRepository.findAllByMonthPlanIdWithCategoryOrder(plan.getId(), userId,
+                    plan.getMonth());
+        }
 
         // Map Categories
-        Map<Long, String> catMap = categoryRepository.findByUserId(userId).stream()
+        Map<Long, String> catMap = categories.stream()
                 .collect(Collectors.toMap(Category::getId, Category::getName));
 
         List<PaymentItemDto> itemDtos = items.stream().map(i -> {
@@ -54,48 +82,78 @@ public class MonthPlanServiceImpl implements MonthPlanService {
         return MonthPlanDto.builder()
                 .id(plan.getId())
                 .userId(plan.getUserId())
-                .monthKey(plan.getMonthKey())
+                .monthKey(plan.getMonth().toString())
                 .createdAt(plan.getCreatedAt())
                 .items(itemDtos)
+                .archived(archived)
                 .build();
     }
 
+    // Same order as findAllByMonthPlanIdWithCategoryOrder, for items read from an archive segment
+    private List<PaymentItem> sortByCategoryOrder(List<PaymentItem> items, List<Category> categories) {
+        Map<Long, Integer> sortOrders = new HashMap<>();
+        for (Category c : categories) {
+            sortOrders.put(c.getId(), c.getSortOrder());
+        }
+        List<PaymentItem> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator
+                .comparing((PaymentItem i) -> sortOrders.get(i.getCategoryId()),
+                        Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(PaymentItem::getName, Comparator.nullsLast(Comparator.naturalOrder())));
+        return sorted;
+    }
+
     @Override
     @Transactional
-    public Long generateMonthPlan(Long userId, String monthKey) {
-        log.info("Generating month plan for user: {} month: {}", userId, monthKey);
+    public Long generateMonthPlan(Long userId, MonthKey month) {
+        log.info("Generating month plan for user: {} month: {}", userId, month);
         // 1. Ensure Plan
-        MonthPlan plan = monthPlanRepository.findByUserIdAndMonthKey(userId, monthKey)
-                .orElseGet(
-                        () -> monthPlanRepository.save(MonthPlan.builder().userId(userId).monthKey(monthKey).build()));
-
-        // 2. Fetch Active Regular Payments
-        // Logic: active in [periodStart, periodEnd]
-        YearMonth ym = YearMonth.parse(monthKey);
-        LocalDate periodStart = ym.atDay(1);
-        LocalDate periodEnd = ym.atEndOfMonth();
-
-        List<RegularPayment> regularPayments = regularPaymentRepository.findActiveForMonth(userId, periodStart,
-                periodEnd);
-        log.debug("Found {} active regular payments for user {}", regularPayments.size(), userId);
-
-        for (RegularPayment rp : regularPayments) {
-            Optional<PaymentItem> existing = paymentItemRepository.findByMonthPlanIdAndNameAndCategoryIdAndUserId(
-                    plan.getId(), rp.getName(), rp.getCategoryId(), userId);
+        MonthPlan plan = monthPlanRepository.findByUserIdAndMonth(userId, month)
+                .orElseGet(() -> {
+                    meterRegistry.counter("expenze.month.plans.generated").increment();
+                    return monthPlanRepository.save(MonthPlan.builder().userId(userId).month(month).build());
+                });
+
+        // Archived months are closed; nothing new is generated into them
+        if (plan.getArchivedAt() != null)
+            return plan.getId();
+
+        // 2. Regular payments due this month, from the user's cached schedule index
+        List<Occurrences> due = recurrenceEngine.expand(userId, month);
+        log.debug("Found {} regular payments due for user {}", due.size(), userId);
+        if (due.isEmpty())
+            return plan.getId();
+
+        // Existing (name, category) pairs of the plan, loaded once rather than per regular payment
+        Set<List<Object>> existingKeys = new HashSet<>();
+        for (PaymentItem existing : paymentItemRepository.findByUserIdAndMonthPlanIdAndMonth(userId, plan.getId(),
+                plan.getMonth())) {
+            existingKeys.add(Arrays.asList(existing.getName(), existing.getCategoryId()));
+        }
 
-            if (existing.isEmpty()) {
+        List<PaymentItem> newItems = new ArrayList<>();
+        for (Occurrences occurrences : due) {
+            Schedule rp = occurrences.schedule();
+            if (existingKeys.add(Arrays.asList(rp.name(), rp.categoryId()))) {
+                // One item per payment and month; a weekly payment plans all its occurrences
                 PaymentItem item = PaymentItem.builder()
                         .userId(userId)
                         .monthPlanId(plan.getId())
-                        .categoryId(rp.getCategoryId())
-                        .name(rp.getName())
-                        .plannedAmount(rp.getDefaultPlannedAmount())
+                        .month(plan.getMonth())
+                        .categoryId(rp.categoryId())
+                        .name(rp.name())
+                        .plannedAmount(occurrences.plannedAmount())
                         .build();
-                paymentItemRepository.save(item);
-                log.trace("Created payment item from regular payment: {}", rp.getName());
+                newItems.add(item);
+                log.trace("Created payment item from regular payment: {}", rp.name());
             }
         }
-        paymentItemRepository.flush();
+        if (!newItems.isEmpty()) {
+            meterRegistry.counter("expenze.month.plans.items.generated").increment(newItems.size());
+            paymentItemRepository.saveAll(newItems);
+            paymentItemRepository.flush();
+            monthPlanCache.invalidate(userId, plan.getMonth());
+        }
         return plan.getId();
     }
 
@@ -104,33 +162,44 @@ public class MonthPlanServiceImpl implements MonthPlanService {
     public Long addManualItem(Long userId, PaymentItemDto dto) {
         log.debug("Adding manual item: {} for user: {}", dto.getName(), userId);
 
-        // If monthPlanId is not provided but monthKey is, resolve it
+        // Resolve the plan: the item needs its month as the partition key either way
+        MonthPlan plan;
         if (dto.getMonthPlanId() == null && dto.getMonthKey() != null) {
-            MonthPlan plan = monthPlanRepository.findByUserIdAndMonthKey(userId, dto.getMonthKey())
+            MonthKey month = MonthKey.parse(dto.getMonthKey());
+            plan = monthPlanRepository.findByUserIdAndMonth(userId, month)
                     .orElseGet(() -> {
-                        log.info("Creating new month plan for key: {} for manual item", dto.getMonthKey());
+                        log.info("Creating new month plan for key: {} for manual item", month);
                         return monthPlanRepository.save(MonthPlan.builder()
                                 .userId(userId)
-                                .monthKey(dto.getMonthKey())
+                                .month(month)
                                 .build());
                     });
             dto.setMonthPlanId(plan.getId());
-        }
-
-        if (dto.getMonthPlanId() == null) {
+        } else if (dto.getMonthPlanId() != null) {
+            plan = monthPlanRepository.findById(dto.getMonthPlanId())
+                    .orElseThrow(() -> new RuntimeException("Month plan not found"));
+            if (!plan.getUserId().equals(userId))
+                throw new RuntimeException("Unauthorized");
+        } else {
             throw new RuntimeException("Month Plan ID or Month Key is required");
         }
 
+        if (plan.getArchivedAt() != null)
+            monthArchiveService.restore(plan);
+
         dto.setUserId(userId);
         PaymentItem item = paymentItemMapper.toEntity(dto);
+        item.setMonth(plan.getMonth());
         item = paymentItemRepository.save(item);
+        monthPlanCache.invalidate(userId, plan.getMonth());
         return item.getId();
     }
 
     @Override
     @Transactional
     public void updateItem(Long userId, Long itemId, PaymentItemDto dto) {
-        PaymentItem item = paymentItemRepository.findById(itemId).orElseThrow();
+        MonthKey month = dto.getMonthKey() != null ? MonthKey.parse(dto.getMonthKey()) : null;
+        PaymentItem item = loadItemForWrite(userId, itemId, month);
         if (!item.getUserId().equals(userId))
             throw new RuntimeException("Unauthorized");
 
@@ -142,102 +211,134 @@ public class MonthPlanServiceImpl implements MonthPlanService {
         item.setPriority(dto.getPriority());
 
         paymentItemRepository.save(item);
+        monthPlanCache.invalidate(userId, item.getMonth());
     }
 
     @Override
     @Transactional
-    public void deleteItem(Long userId, Long itemId) {
-        PaymentItem item = paymentItemRepository.findById(itemId).orElseThrow();
+    public void deleteItem(Long userId, Long itemId, MonthKey month) {
+        PaymentItem item = loadItemForWrite(userId, itemId, month);
         if (!item.getUserId().equals(userId))
             throw new RuntimeException("Unauthorized");
         paymentItemRepository.delete(item);
+        monthPlanCache.invalidate(userId, item.getMonth());
+    }
+
+    // An archived month's items live in its segment, so writing one restores the month first.
+    // Without the month from the client, the id lookup probes every partition once.
+    private PaymentItem loadItemForWrite(Long userId, Long itemId, MonthKey month) {
+        Optional<PaymentItem> item = month != null
+                ? paymentItemRepository.findByIdAndMonth(itemId, month)
+                : paymentItemRepository.findById(itemId);
+        if (item.isEmpty()) {
+            Optional<MonthPlan> archived = month != null
+                    ? monthPlanRepository.findByUserIdAndMonth(userId, month).filter(p -> p.getArchivedAt() != null)
+                    : monthArchiveService.findArchivedPlanOfItem(userId, itemId);
+            MonthPlan plan = archived
+                    .orElseThrow(() -> new ResourceNotFoundException("PaymentItem", "id", itemId));
+            monthArchiveService.restore(plan);
+            item = paymentItemRepository.findByIdAndMonth(itemId, plan.getMonth());
+        }
+        return item.orElseThrow(() -> new ResourceNotFoundException("PaymentItem", "id", itemId));
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @DbPool(Workload.REPORTING)
     public List<Object> getLast6MonthsSummary(Long userId) {
-        YearMonth current = YearMonth.now();
-        List<Map<String, Object>> result = new ArrayList<>();
+        MonthKey current = MonthKey.now();
+        LedgerCube cube = ledgerCubeCache.get(userId);
+        List<Object> result = new ArrayList<>(6);
 
         // Last 6 months inclusive
         for (int i = 5; i >= 0; i--) {
-            YearMonth ym = current.minusMonths(i);
-            String key = ym.toString(); // YYYY-MM
-
-            MonthPlan plan = monthPlanRepository.findByUserIdAndMonthKey(userId, key).orElse(null);
-            BigDecimal totalPlanned = BigDecimal.ZERO;
-            BigDecimal totalActual = BigDecimal.ZERO;
-
-            if (plan != null) {
-                List<PaymentItem> items = paymentItemRepository.findByUserIdAndMonthPlanId(userId, plan.getId());
-                for (PaymentItem pi : items) {
-                    if (pi.getPlannedAmount() != null)
-                        totalPlanned = totalPlanned.add(pi.getPlannedAmount());
-                    if (pi.getActualAmount() != null)
-                        totalActual = totalActual.add(pi.getActualAmount());
-                }
-            }
-
+            MonthKey month = current.minusMonths(i);
             Map<String, Object> map = new HashMap<>();
-            map.put("monthKey", key);
-            map.put("totalPlanned", totalPlanned);
-            map.put("totalActual", totalActual);
+            map.put("monthKey", month.toString());
+            map.put("totalPlanned", Money.fromMinorUnits(cube.monthTotal(LedgerCube.Column.PLANNED, month)));
+            map.put("totalActual", Money.fromMinorUnits(cube.monthTotal(LedgerCube.Column.ACTUAL, month)));
             result.add(map);
         }
-        return new ArrayList<>(result);
+        return result;
     }
 
     @Override
-    public List<Object> getCategoryExpenses(Long userId, String monthKey) {
-        MonthPlan plan = monthPlanRepository.findByUserIdAndMonthKey(userId, monthKey).orElse(null);
-        if (plan == null)
-            return Collections.emptyList();
+    @Transactional(readOnly = true)
+    @DbPool(Workload.REPORTING)
+    public List<Object> getCategoryExpenses(Long userId, MonthKey month) {
+        LedgerCube cube = ledgerCubeCache.get(userId);
+        if (cube.monthTotal(LedgerCube.Column.ITEMS, month) == 0 && cube.isArchived(month)) {
+            return getArchivedCategoryExpenses(userId, month);
+        }
+
+        List<Object> result = new ArrayList<>();
+        for (int ordinal : cube.rankCategories(LedgerCube.Column.POSITIVE_ACTUAL, month)) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("categoryName", cube.categoryName(ordinal));
+            map.put("totalActual",
+                    Money.fromMinorUnits(cube.value(LedgerCube.Column.POSITIVE_ACTUAL, month, ordinal)));
+            result.add(map);
+        }
+        return result;
+    }
 
-        List<PaymentItem> items = paymentItemRepository.findByUserIdAndMonthPlanId(userId, plan.getId());
+    // Archived items are not in the ledger cube; read them from the month's segment
+    private List<Object> getArchivedCategoryExpenses(Long userId, MonthKey month) {
+        List<PaymentItem> items = monthPlanRepository.findByUserIdAndMonth(userId, month)
+                .map(monthArchiveService::loadArchivedItems)
+                .orElse(Collections.emptyList());
+        if (items.isEmpty())
+            return Collections.emptyList();
 
-        // Group by Category -> Sum Actual
-        Map<Long, BigDecimal> sums = new HashMap<>();
+        // Group by Category -> Sum Actual (in minor units)
+        Map<Long, MoneyAccumulator> sums = new HashMap<>();
         for (PaymentItem pi : items) {
-            if (pi.getActualAmount() == null || pi.getActualAmount().compareTo(BigDecimal.ZERO) <= 0)
+            if (pi.getActualAmount() == null || pi.getActualAmount().signum() <= 0)
                 continue;
-            sums.merge(pi.getCategoryId(), pi.getActualAmount(), BigDecimal::add);
+            sums.computeIfAbsent(pi.getCategoryId(), k -> new MoneyAccumulator()).add(pi.getActualAmount());
+        }
+
+        // Sort descending before converting back to BigDecimal
+        List<Map.Entry<Long, MoneyAccumulator>> sorted = new ArrayList<>(sums.entrySet());
+        sorted.sort((a, b) -> Long.compare(b.getValue().minorUnits(), a.getValue().minorUnits()));
+
+        // Category names in one query instead of one lookup per category
+        Map<Long, String> names = new HashMap<>();
+        for (Category c : categoryRepository.findAllById(
+                sums.keySet().stream().filter(Objects::nonNull).collect(Collectors.toList()))) {
+            names.put(c.getId(), c.getName());
         }
 
         List<Object> result = new ArrayList<>();
-        for (Map.Entry<Long, BigDecimal> entry : sums.entrySet()) {
-            Category cat = categoryRepository.findById(entry.getKey()).orElse(null);
-            String name = (cat != null) ? cat.getName() : "Unknown";
+        for (Map.Entry<Long, MoneyAccumulator> entry : sorted) {
+            String name = names.getOrDefault(entry.getKey(), "Unknown");
 
             Map<String, Object> map = new HashMap<>();
             map.put("categoryName", name);
-            map.put("totalActual", entry.getValue());
+            map.put("totalActual", entry.getValue().toBigDecimal());
             result.add(map);
         }
 
-        // Sort descending
-        result.sort((a, b) -> {
-            BigDecimal v1 = (BigDecimal) ((Map) a).get("totalActual");
-            BigDecimal v2 = (BigDecimal) ((Map) b).get("totalActual");
-            return v2.compareTo(v1);
-        });
-
         return result;
     }
 
     @Override
-    public Object getSalary(Long userId, String monthKey) {
-        Salary s = salaryRepository.findByUserIdAndMonthKey(userId, monthKey).orElse(null);
+    public Object getSalary(Long userId, MonthKey month) {
+        Salary s = salaryRepository.findByUserIdAndMonth(userId, month).orElse(null);
         Map<String, Object> map = new HashMap<>();
-        map.put("monthKey", monthKey);
+        map.put("monthKey", month.toString());
         map.put("amount", s != null ? s.getAmount() : BigDecimal.ZERO);
         return map;
     }
 
     @Override
     @Transactional
-    public void saveSalary(Long userId, String monthKey, BigDecimal amount) {
-        Salary s = salaryRepository.findByUserIdAndMonthKey(userId, monthKey)
-                .orElse(Salary.builder().userId(userId).monthKey(monthKey).build());
+    public void saveSalary(Long userId, MonthKey month, BigDecimal amount) {
+        Salary s = salaryRepository.findByUserIdAndMonth(userId, month)
+                .orElse(Salary.builder().userId(userId).month(month).build());
         s.setAmount(amount);
         salaryRepository.save(s);
+        // Not part of the month response or the ledger; only the forecast goes stale
+        userDataVersions.invalidateAfterCommit(UserDataVersions.Scope.SALARIES, userId);
     }
 }
@@ -1,5 +1,8 @@
 package com.expenze.service.impl;
 
+import com.expenze.cache.MonthPlanResponseCache;
+import com.expenze.cache.UserDataVersions;
+import com.expenze.cache.UserDataVersions.Scope;
 import com.expenze.dto.RegularPaymentDto;
 import com.expenze.entity.Category;
 import com.expenze.entity.RegularPayment;
@@ -23,6 +26,8 @@ public class RegularPaymentServiceImpl implements RegularPaymentService {
     private final RegularPaymentRepository regularPaymentRepository;
     private final CategoryRepository categoryRepository;
     private final RegularPaymentMapper regularPaymentMapper;
+    private final MonthPlanResponseCache monthPlanCache;
+    private final UserDataVersions userDataVersions;
 
     @Override
     public List<RegularPaymentDto> getAll(Long userId) {
@@ -48,6 +53,9 @@ public class RegularPaymentServiceImpl implements RegularPaymentService {
         dto.setUserId(userId);
         RegularPayment rp = regularPaymentMapper.toEntity(dto);
         rp = regularPaymentRepository.save(rp);
+        // Viewing a month generates items for active regular payments, so any month may change
+        monthPlanCache.invalidateUser(userId);
+        userDataVersions.invalidateAfterCommit(Scope.REGULAR_PAYMENTS, userId);
         return rp.getId();
     }
 
@@ -70,6 +78,8 @@ public class RegularPaymentServiceImpl implements RegularPaymentService {
         rp.setIsActive(dto.getIsActive());
 
         regularPaymentRepository.save(rp);
+        monthPlanCache.invalidateUser(userId);
+        userDataVersions.invalidateAfterCommit(Scope.REGULAR_PAYMENTS, userId);
     }
 
     @Override
@@ -79,6 +89,9 @@ public class RegularPaymentServiceImpl implements RegularPaymentService {
                 .orElseThrow(() -> new RuntimeException("Not found"));
         if (!rp.getUserId().equals(userId))
             throw new RuntimeException("Unauthorized");
+        // Items already generated from it stay, but months not yet generated no longer get it
         regularPaymentRepository.delete(rp);
+        monthPlanCache.invalidateUser(userId);
+        userDataVersions.invalidateAfterCommit(Scope.REGULAR_PAYMENTS, userId);
     }
 }
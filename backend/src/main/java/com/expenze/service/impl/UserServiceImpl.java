@@ -1,5 +1,8 @@
 package com.expenze.service.impl;
 
+import com.expenze.cache.MonthPlanResponseCache;
+import com.expenze.db.DbPool;
+import com.expenze.db.Workload;
 import com.expenze.dto.SystemSettingDto;
 import com.expenze.dto.UserDto;
 import com.expenze.entity.EmailChangeRequest;
@@ -33,6 +36,7 @@ public class UserServiceImpl implements UserService {
     private final UserMapper userMapper;
     private final SystemSettingMapper systemSettingMapper;
     private final EmailService emailService;
+    private final MonthPlanResponseCache monthPlanCache;
 
     @Override
     public UserDto getProfile(Long userId) {
@@ -99,6 +103,8 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @DbPool(Workload.REPORTING)
     public List<UserDto> getAllUsers() {
         return userRepository.findAll().stream().map(userMapper::toDto).collect(Collectors.toList());
     }
@@ -118,6 +124,7 @@ public class UserServiceImpl implements UserService {
         if (adminId.equals(targetUserId))
             throw new RuntimeException("Cannot delete self");
         userRepository.deleteById(targetUserId);
+        monthPlanCache.invalidateUser(targetUserId);
     }
 
     @Override
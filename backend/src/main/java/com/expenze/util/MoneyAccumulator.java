@@ -0,0 +1,45 @@
+package com.expenze.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Mutable running total in {@code long} minor units, used instead of chaining
+ * {@link BigDecimal#add} (one allocation per addition) in summary and rollup code.
+ * Additions are overflow-checked and throw {@link ArithmeticException}.
+ */
+public final class MoneyAccumulator {
+
+    private long minorUnits;
+
+    public MoneyAccumulator add(BigDecimal amount) {
+        if (amount != null) {
+            minorUnits = Math.addExact(minorUnits, Money.toMinorUnits(amount));
+        }
+        return this;
+    }
+
+    public MoneyAccumulator addMinorUnits(long amount) {
+        minorUnits = Math.addExact(minorUnits, amount);
+        return this;
+    }
+
+    public MoneyAccumulator add(MoneyAccumulator other) {
+        return addMinorUnits(other.minorUnits);
+    }
+
+    public long minorUnits() {
+        return minorUnits;
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public void reset() {
+        minorUnits = 0L;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return Money.fromMinorUnits(minorUnits);
+    }
+}
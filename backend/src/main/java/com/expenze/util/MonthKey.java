@@ -0,0 +1,115 @@
+package com.expenze.util;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Compact calendar month stored as a single {@code yyyymm} integer (e.g. 202405).
+ * <p>
+ * This is the in-memory form of the {@code month_num} columns. It orders naturally,
+ * supports B-tree range predicates in SQL and avoids {@link YearMonth} parsing on the
+ * request path. The legacy "YYYY-MM" string is still what the API speaks.
+ */
+public record MonthKey(int value) implements Comparable<MonthKey> {
+
+    public MonthKey {
+        int month = value % 100;
+        if (value < 100 || month < 1 || month > 12) {
+            throw new IllegalArgumentException("Invalid month value: " + value);
+        }
+    }
+
+    public static MonthKey of(int year, int month) {
+        return new MonthKey(year * 100 + month);
+    }
+
+    public static MonthKey of(YearMonth ym) {
+        return of(ym.getYear(), ym.getMonthValue());
+    }
+
+    public static MonthKey of(LocalDate date) {
+        return of(date.getYear(), date.getMonthValue());
+    }
+
+    public static MonthKey now() {
+        return of(LocalDate.now());
+    }
+
+    /**
+     * Parses the "YYYY-MM" form used by the API without going through {@link YearMonth}.
+     */
+    public static MonthKey parse(String key) {
+        if (key == null || key.length() != 7 || key.charAt(4) != '-') {
+            throw new IllegalArgumentException("Month key must be in YYYY-MM format: " + key);
+        }
+        int year = 0;
+        for (int i = 0; i < 4; i++) {
+            year = year * 10 + digit(key, i);
+        }
+        int month = digit(key, 5) * 10 + digit(key, 6);
+        if (month < 1 || month > 12) {
+            throw new IllegalArgumentException("Month key must be in YYYY-MM format: " + key);
+        }
+        return of(year, month);
+    }
+
+    private static int digit(String key, int index) {
+        char c = key.charAt(index);
+        if (c < '0' || c > '9') {
+            throw new IllegalArgumentException("Month key must be in YYYY-MM format: " + key);
+        }
+        return c - '0';
+    }
+
+    public int year() {
+        return value / 100;
+    }
+
+    public int month() {
+        return value % 100;
+    }
+
+    public MonthKey plusMonths(int months) {
+        int index = year() * 12 + (month() - 1) + months;
+        return of(Math.floorDiv(index, 12), Math.floorMod(index, 12) + 1);
+    }
+
+    public MonthKey minusMonths(int months) {
+        return plusMonths(-months);
+    }
+
+    /**
+     * Number of months from this month to {@code other}; negative when other is earlier.
+     */
+    public int monthsUntil(MonthKey other) {
+        return (other.year() * 12 + other.month()) - (year() * 12 + month());
+    }
+
+    public LocalDate firstDay() {
+        return LocalDate.of(year(), month(), 1);
+    }
+
+    public LocalDate lastDay() {
+        return YearMonth.of(year(), month()).atEndOfMonth();
+    }
+
+    @Override
+    public int compareTo(MonthKey other) {
+        return Integer.compare(value, other.value);
+    }
+
+    @Override
+    public String toString() {
+        int year = year();
+        int month = month();
+        char[] chars = new char[7];
+        chars[0] = (char) ('0' + year / 1000 % 10);
+        chars[1] = (char) ('0' + year / 100 % 10);
+        chars[2] = (char) ('0' + year / 10 % 10);
+        chars[3] = (char) ('0' + year % 10);
+        chars[4] = '-';
+        chars[5] = (char) ('0' + month / 10);
+        chars[6] = (char) ('0' + month % 10);
+        return new String(chars);
+    }
+}
@@ -0,0 +1,67 @@
+package com.expenze.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * W3C Trace Context identifiers: 128-bit trace ids and 64-bit span ids as lowercase hex.
+ * <p>
+ * Ids only need to be unique, not unpredictable, so they come from {@link ThreadLocalRandom}
+ * instead of the SecureRandom behind {@code UUID.randomUUID()}, and are hex-encoded straight
+ * into a char array.
+ */
+public final class TraceIds {
+
+    public static final int TRACE_ID_LENGTH = 32;
+    public static final int SPAN_ID_LENGTH = 16;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private TraceIds() {
+    }
+
+    public static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high;
+        long low;
+        do {
+            high = random.nextLong();
+            low = random.nextLong();
+        } while (high == 0 && low == 0); // all-zero ids are invalid
+        char[] chars = new char[TRACE_ID_LENGTH];
+        writeHex(high, chars, 0);
+        writeHex(low, chars, 16);
+        return new String(chars);
+    }
+
+    public static String newSpanId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id;
+        do {
+            id = random.nextLong();
+        } while (id == 0);
+        char[] chars = new char[SPAN_ID_LENGTH];
+        writeHex(id, chars, 0);
+        return new String(chars);
+    }
+
+    /** True for a lowercase hex id of the given length that is not all zeros. */
+    public static boolean isValid(CharSequence id, int length) {
+        if (id == null || id.length() != length)
+            return false;
+        boolean nonZero = false;
+        for (int i = 0; i < length; i++) {
+            char c = id.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f')))
+                return false;
+            nonZero |= c != '0';
+        }
+        return nonZero;
+    }
+
+    private static void writeHex(long value, char[] dest, int offset) {
+        for (int i = 15; i >= 0; i--) {
+            dest[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
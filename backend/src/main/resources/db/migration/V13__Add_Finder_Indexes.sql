@@ -0,0 +1,21 @@
+-- Secondary indexes backing the repository finders.
+-- password_reset_tokens(token) and user_verifications(email) are already covered by
+-- their UNIQUE / PRIMARY KEY constraints, so they are not repeated here.
+
+-- PaymentItemRepository: findByMonthPlanId, findByUserIdAndMonthPlanId,
+-- findAllByMonthPlanIdWithCategoryOrder and findByMonthPlanIdAndNameAndCategoryIdAndUserId
+-- all lead with month_plan_id, so a single composite index serves every finder.
+CREATE INDEX IF NOT EXISTS idx_payment_items_plan_user
+    ON payment_items(month_plan_id, user_id, category_id, name);
+
+-- RegularPaymentRepository: findByUserId and findActiveForMonth
+CREATE INDEX IF NOT EXISTS idx_regular_payments_user
+    ON regular_payments(user_id, is_active);
+
+-- CategoryRepository: findByUserId* (ordered by sort_order, name)
+CREATE INDEX IF NOT EXISTS idx_categories_user_sort
+    ON categories(user_id, sort_order, name);
+
+-- PasswordResetTokenRepository.deleteByUserId
+CREATE INDEX IF NOT EXISTS idx_password_reset_tokens_user
+    ON password_reset_tokens(user_id);
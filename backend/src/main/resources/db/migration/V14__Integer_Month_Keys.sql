@@ -0,0 +1,34 @@
+-- Store months as compact yyyymm integers (month_num) instead of 'YYYY-MM' strings.
+-- month_num becomes the source of truth; monthkey is kept as a generated column so
+-- ad-hoc SQL and existing reports can still read the familiar string form.
+
+-- month_plans
+ALTER TABLE month_plans ADD COLUMN IF NOT EXISTS month_num INTEGER;
+UPDATE month_plans
+SET month_num = CAST(SUBSTRING(monthkey FROM 1 FOR 4) AS INTEGER) * 100
+              + CAST(SUBSTRING(monthkey FROM 6 FOR 2) AS INTEGER)
+WHERE month_num IS NULL;
+ALTER TABLE month_plans ALTER COLUMN month_num SET NOT NULL;
+
+ALTER TABLE month_plans DROP CONSTRAINT IF EXISTS uk_month_plans_user_month;
+ALTER TABLE month_plans DROP COLUMN monthkey;
+ALTER TABLE month_plans ADD COLUMN monthkey VARCHAR(7)
+    GENERATED ALWAYS AS (LPAD((month_num / 100)::TEXT, 4, '0') || '-' || LPAD((month_num % 100)::TEXT, 2, '0')) STORED;
+
+-- The unique constraint's B-tree index also serves per-user month range scans
+ALTER TABLE month_plans ADD CONSTRAINT uk_month_plans_user_month UNIQUE (user_id, month_num);
+
+-- salaries
+ALTER TABLE salaries ADD COLUMN IF NOT EXISTS month_num INTEGER;
+UPDATE salaries
+SET month_num = CAST(SUBSTRING(monthkey FROM 1 FOR 4) AS INTEGER) * 100
+              + CAST(SUBSTRING(monthkey FROM 6 FOR 2) AS INTEGER)
+WHERE month_num IS NULL;
+ALTER TABLE salaries ALTER COLUMN month_num SET NOT NULL;
+
+ALTER TABLE salaries DROP CONSTRAINT IF EXISTS uk_salaries_user_month;
+ALTER TABLE salaries DROP COLUMN monthkey;
+ALTER TABLE salaries ADD COLUMN monthkey VARCHAR(7)
+    GENERATED ALWAYS AS (LPAD((month_num / 100)::TEXT, 4, '0') || '-' || LPAD((month_num % 100)::TEXT, 2, '0')) STORED;
+
+ALTER TABLE salaries ADD CONSTRAINT uk_salaries_user_month UNIQUE (user_id, month_num);
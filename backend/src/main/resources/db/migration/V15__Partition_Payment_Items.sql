@@ -0,0 +1,63 @@
+-- Turn payment_items into a table partitioned by year of the owning month plan.
+-- Every item now carries month_num (copied from its month plan) as the partition key,
+-- so month-scoped queries prune to a single yearly partition and old years can be
+-- detached or dropped wholesale instead of being DELETEd row by row.
+-- Partitions for upcoming years are created ahead of time by PaymentItemPartitionJob.
+
+CREATE TABLE payment_items_partitioned (
+    id BIGINT NOT NULL DEFAULT nextval('payment_items_id_seq'),
+    user_id BIGINT,
+    month_plan_id BIGINT,
+    month_num INTEGER NOT NULL,
+    category_id BIGINT,
+    name VARCHAR(255) NOT NULL,
+    planned_amount NUMERIC(38, 2) DEFAULT 0,
+    actual_amount NUMERIC(38, 2) DEFAULT 0,
+    is_paid INTEGER DEFAULT 0,
+    notes TEXT,
+    priority VARCHAR(20) DEFAULT 'MEDIUM',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_payment_items PRIMARY KEY (id, month_num)
+) PARTITION BY RANGE (month_num);
+
+-- Rows outside every yearly partition land here; the job logs if it ever fills up
+CREATE TABLE payment_items_default PARTITION OF payment_items_partitioned DEFAULT;
+
+-- One partition per year that has data, plus the current and next year
+DO $$
+DECLARE
+    y INTEGER;
+BEGIN
+    FOR y IN
+        SELECT DISTINCT month_num / 100 FROM month_plans
+        UNION
+        SELECT EXTRACT(YEAR FROM CURRENT_DATE)::INTEGER
+        UNION
+        SELECT EXTRACT(YEAR FROM CURRENT_DATE)::INTEGER + 1
+    LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS payment_items_y%s PARTITION OF payment_items_partitioned '
+                       'FOR VALUES FROM (%s) TO (%s)', y, y * 100 + 1, (y + 1) * 100 + 1);
+    END LOOP;
+END
+$$;
+
+-- Items without a plan are unreachable through the API; file them under their creation month
+INSERT INTO payment_items_partitioned (id, user_id, month_plan_id, month_num, category_id, name,
+                                       planned_amount, actual_amount, is_paid, notes, priority, created_at)
+SELECT pi.id, pi.user_id, pi.month_plan_id,
+       COALESCE(mp.month_num, CAST(TO_CHAR(COALESCE(pi.created_at, CURRENT_TIMESTAMP), 'YYYYMM') AS INTEGER)),
+       pi.category_id, pi.name, pi.planned_amount, pi.actual_amount, pi.is_paid, pi.notes, pi.priority,
+       pi.created_at
+FROM payment_items pi
+LEFT JOIN month_plans mp ON mp.id = pi.month_plan_id;
+
+ALTER SEQUENCE payment_items_id_seq OWNED BY payment_items_partitioned.id;
+DROP TABLE payment_items;
+ALTER TABLE payment_items_partitioned RENAME TO payment_items;
+
+-- Indexes are created on the parent and cascade to every partition
+CREATE INDEX idx_payment_items_plan_user
+    ON payment_items(month_plan_id, user_id, category_id, name);
+
+CREATE INDEX idx_payment_items_user_month
+    ON payment_items(user_id, month_num);
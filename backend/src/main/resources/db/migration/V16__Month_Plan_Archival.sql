@@ -0,0 +1,7 @@
+-- Closed months older than the archival horizon are moved out of payment_items into
+-- compressed segment files on disk. archived_at marks plans whose items live there.
+ALTER TABLE month_plans ADD COLUMN IF NOT EXISTS archived_at TIMESTAMP;
+
+-- The archival job scans for old, still-hot plans
+CREATE INDEX IF NOT EXISTS idx_month_plans_unarchived
+    ON month_plans(month_num) WHERE archived_at IS NULL;
@@ -0,0 +1,9 @@
+-- Items created by a bank statement import carry a hash of their source row, so importing
+-- an overlapping statement again skips the rows that are already there.
+ALTER TABLE payment_items ADD COLUMN IF NOT EXISTS import_hash VARCHAR(64);
+
+-- A unique index on a partitioned table must contain the partition key (month_num);
+-- the hash covers the transaction date, so its month is implied anyway. Manually entered
+-- items have no hash and are not constrained.
+CREATE UNIQUE INDEX IF NOT EXISTS uk_payment_items_import_hash
+    ON payment_items(user_id, month_num, import_hash) WHERE import_hash IS NOT NULL;
@@ -0,0 +1,15 @@
+-- Per-category totals of archived months, whose items no longer live in payment_items.
+-- Written when a month is archived and removed when it is restored, so live items plus
+-- rollups always cover a user's whole history for range analytics. An archived month
+-- without items keeps one row with item_count = 0, marking it as rolled up.
+CREATE TABLE IF NOT EXISTS month_category_rollups (
+    user_id BIGINT NOT NULL,
+    month_num INTEGER NOT NULL,
+    category_id BIGINT,
+    planned_amount NUMERIC(38, 2) NOT NULL DEFAULT 0,
+    actual_amount NUMERIC(38, 2) NOT NULL DEFAULT 0,
+    item_count INTEGER NOT NULL DEFAULT 0
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_month_category_rollups
+    ON month_category_rollups(user_id, month_num, COALESCE(category_id, 0));
@@ -0,0 +1,24 @@
+-- Findings of the nightly insight job, read as-is by GET /api/v1/insights.
+CREATE TABLE IF NOT EXISTS insights (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    month_num INTEGER NOT NULL,
+    category_id BIGINT NOT NULL,
+    kind VARCHAR(32) NOT NULL,
+    actual_amount NUMERIC(38, 2) NOT NULL,
+    baseline_mean NUMERIC(38, 2) NOT NULL,
+    baseline_stddev NUMERIC(38, 2) NOT NULL,
+    z_score NUMERIC(8, 2) NOT NULL,
+    message TEXT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_insights_user_month_category_kind UNIQUE (user_id, month_num, category_id, kind)
+);
+
+-- The unique constraint's index (user_id, month_num, ...) also serves the newest-first read
+
+-- Last month each incremental job has fully processed
+CREATE TABLE IF NOT EXISTS job_watermarks (
+    job_name VARCHAR(64) PRIMARY KEY,
+    month_num INTEGER NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,6 @@
+-- Lowest and highest item id in an archived month's segment, so a write to an archived item
+-- finds its month without decoding every segment of the user. Ranges of different months may
+-- overlap (ids come from one sequence); the segment is checked to confirm. Months archived
+-- before this get their range from the nightly archival job; an empty month has 0..0.
+ALTER TABLE month_plans ADD COLUMN IF NOT EXISTS archived_min_item_id BIGINT;
+ALTER TABLE month_plans ADD COLUMN IF NOT EXISTS archived_max_item_id BIGINT;
@@ -0,0 +1,4 @@
+-- The archival job's backfills (rollups, item id ranges) walk archived plans by id; without
+-- this they scan every plan of every user each night
+CREATE INDEX IF NOT EXISTS idx_month_plans_archived
+    ON month_plans(id) WHERE archived_at IS NOT NULL;
@@ -0,0 +1,91 @@
+package com.expenze;
+
+import com.expenze.db.StatementRecorder;
+import com.expenze.job.PaymentItemPartitionJob;
+import com.expenze.util.MonthKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Base for tests against a real Postgres 16 (the docker-compose version) with the Flyway
+ * schema and the dataset in {@code db/integration-seed.sql}, loaded once for all subclasses.
+ * One container and one application context are shared by every subclass; skipped when
+ * Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.mail.username=integration@example.com",
+        "spring.mail.password=unused",
+        "expenze.sql.fail-on-violation=true"
+})
+@AutoConfigureMockMvc
+@Import(StatementRecorder.class)
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresIntegrationTest {
+
+    protected static final String PASSWORD = "it-password";
+
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("expenze");
+
+    private static boolean seeded;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PaymentItemPartitionJob partitionJob;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) throws Exception {
+        POSTGRES.start();
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        Path archive = Files.createTempDirectory("expenze-archive");
+        registry.add("expenze.archive.dir", archive::toString);
+    }
+
+    @BeforeEach
+    void seed() {
+        synchronized (PostgresIntegrationTest.class) {
+            if (seeded)
+                return;
+            MonthKey now = MonthKey.now();
+            partitionJob.ensurePartitions(now.minusMonths(24).year(), now.year() + 1);
+            new ResourceDatabasePopulator(new ClassPathResource("db/integration-seed.sql")).execute(dataSource);
+            jdbcTemplate.update("UPDATE users SET password = ? WHERE username LIKE 'it\\_user\\_%'",
+                    passwordEncoder.encode(PASSWORD));
+            seeded = true;
+        }
+    }
+
+    /** Id of seeded user {@code it_user_<n>}, 1-1000. */
+    protected long userId(int n) {
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username(n));
+    }
+
+    protected static String username(int n) {
+        return "it_user_" + n;
+    }
+}
@@ -0,0 +1,125 @@
+package com.expenze.db;
+
+import com.expenze.PostgresIntegrationTest;
+import com.expenze.util.MonthKey;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * With every connection of the reporting pool taken, a reporting request has to wait for one
+ * while an interactive request still gets its connection from the interactive pool.
+ */
+class BulkheadIntegrationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${expenze.datasource.pools.reporting.maximum-pool-size}")
+    private int reportingPoolSize;
+
+    @Value("${expenze.datasource.pools.interactive.connection-timeout}")
+    private long interactiveConnectionTimeoutMs;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void interactiveRequestsProceedWhileReportingPoolIsExhausted() throws Exception {
+        String token = login(3);
+        List<Connection> held = holdReportingConnections();
+        CompletableFuture<MockHttpServletResponse> trends;
+        try {
+            assertThat(gauge("expenze.datasource.pool.saturation", "reporting")).isEqualTo(1.0);
+
+            trends = CompletableFuture.supplyAsync(() -> perform(get("/api/v1/analytics/trends"), token));
+            awaitPendingReportingConnection();
+
+            long started = System.nanoTime();
+            MockHttpServletResponse month = perform(get("/api/v1/month/" + MonthKey.now()), token);
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+            assertThat(month.getStatus()).as(month.getContentAsString()).isEqualTo(200);
+            assertThat(elapsed).isLessThan(Duration.ofMillis(interactiveConnectionTimeoutMs));
+            assertThat(trends).as("reporting request waiting for a reporting connection").isNotDone();
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+        MockHttpServletResponse report = trends.get(30, TimeUnit.SECONDS);
+        assertThat(report.getStatus()).as(report.getContentAsString()).isEqualTo(200);
+    }
+
+    private List<Connection> holdReportingConnections() throws Exception {
+        List<Connection> held = new ArrayList<>();
+        Workload previous = Workload.bind(Workload.REPORTING);
+        try {
+            for (int i = 0; i < reportingPoolSize; i++) {
+                Connection connection = dataSource.getConnection();
+                held.add(connection);
+                // The DataSource is lazy: the pool hands out a connection on first use
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+            }
+        } finally {
+            Workload.bind(previous);
+        }
+        return held;
+    }
+
+    private void awaitPendingReportingConnection() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (gauge("hikaricp.connections.pending", "reporting") < 1) {
+            assertThat(System.nanoTime()).as("reporting request queued for a connection").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private double gauge(String name, String pool) {
+        return meterRegistry.get(name).tag("pool", pool).gauge().value();
+    }
+
+    private String login(int user) throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(post("/api/v1/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("username", username(user), "password", PASSWORD))))
+                .andReturn().getResponse();
+        assertThat(response.getStatus()).as(response.getContentAsString()).isEqualTo(200);
+        return objectMapper.readTree(response.getContentAsString()).path("token").asText();
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequestBuilder request, String token) {
+        try {
+            return mockMvc.perform(request.header("Authorization", "Bearer " + token)).andReturn().getResponse();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
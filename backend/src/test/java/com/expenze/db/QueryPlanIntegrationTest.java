@@ -0,0 +1,244 @@
+package com.expenze.db;
+
+import com.expenze.PostgresIntegrationTest;
+import com.expenze.dto.LoginRequest;
+import com.expenze.dto.PaymentItemDto;
+import com.expenze.export.ExportFormat;
+import com.expenze.importer.ImportFormat;
+import com.expenze.importer.ImportJob;
+import com.expenze.importer.StatementImporter;
+import com.expenze.job.SpendingInsightJob;
+import com.expenze.repository.EmailChangeRequestRepository;
+import com.expenze.repository.PasswordResetTokenRepository;
+import com.expenze.repository.SystemSettingRepository;
+import com.expenze.repository.UserRepository;
+import com.expenze.repository.UserVerificationRepository;
+import com.expenze.service.AnalyticsService;
+import com.expenze.service.AuthService;
+import com.expenze.service.CategoryService;
+import com.expenze.service.CategoryTemplateService;
+import com.expenze.service.ExportService;
+import com.expenze.service.ForecastService;
+import com.expenze.service.InsightService;
+import com.expenze.service.MonthArchiveService;
+import com.expenze.service.MonthPlanService;
+import com.expenze.service.RegularPaymentService;
+import com.expenze.service.UserService;
+import com.expenze.util.MonthKey;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query-plan regression check: exercises the services, jobs and repositories against the
+ * seeded database, records every statement they send ({@link StatementRecorder}), and fails
+ * when the generic plan of one of them sequentially scans a large table.
+ *
+ * Generic plans ({@code EXPLAIN (GENERIC_PLAN)}, Postgres 16) are what a prepared statement
+ * gets once its parameters no longer shape the plan, so they show whether an index serves
+ * the predicate at all.
+ */
+class QueryPlanIntegrationTest extends PostgresIntegrationTest {
+
+    // INSERTs are left out: a VALUES list scans nothing
+    private static final Pattern CHECKED = Pattern.compile("\\s*(select|with|update|delete)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    // Smaller tables are cheaper to scan than to probe, and the planner rightly does so
+    private static final long LARGE_TABLE_ROWS = 10_000;
+
+    @Autowired
+    private AuthService authService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private MonthPlanService monthPlanService;
+    @Autowired
+    private AnalyticsService analyticsService;
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private CategoryTemplateService templateService;
+    @Autowired
+    private RegularPaymentService regularPaymentService;
+    @Autowired
+    private ForecastService forecastService;
+    @Autowired
+    private ExportService exportService;
+    @Autowired
+    private InsightService insightService;
+    @Autowired
+    private SpendingInsightJob insightJob;
+    @Autowired
+    private StatementImporter statementImporter;
+    @Autowired
+    private MonthArchiveService monthArchiveService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PasswordResetTokenRepository passwordResetTokenRepository;
+    @Autowired
+    private UserVerificationRepository userVerificationRepository;
+    @Autowired
+    private EmailChangeRequestRepository emailChangeRequestRepository;
+    @Autowired
+    private SystemSettingRepository systemSettingRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void statementsUseIndexesOnLargeTables() throws Exception {
+        // The statements carry $n placeholders, which JDBC would try to bind; PL/pgSQL
+        // EXECUTE hands them to EXPLAIN as they are
+        jdbcTemplate.execute("""
+                CREATE OR REPLACE FUNCTION explain_generic_plan(statement text) RETURNS text AS $$
+                DECLARE plan text;
+                BEGIN
+                    EXECUTE 'EXPLAIN (GENERIC_PLAN, FORMAT JSON) ' || statement INTO plan;
+                    RETURN plan;
+                END $$ LANGUAGE plpgsql""");
+
+        StatementRecorder.start();
+        Set<String> statements;
+        try {
+            exerciseApplication();
+        } finally {
+            statements = StatementRecorder.stop();
+        }
+        statements.removeIf(sql -> !CHECKED.matcher(sql).lookingAt());
+        assertThat(statements).as("statements recorded").hasSizeGreaterThan(30);
+
+        List<String> failures = new ArrayList<>();
+        for (String sql : statements) {
+            String plan = jdbcTemplate.queryForObject("SELECT explain_generic_plan(?)", String.class,
+                    numberPlaceholders(sql));
+            for (String relation : seqScans(objectMapper.readTree(plan), new TreeSet<>())) {
+                if (isLarge(relation)) {
+                    failures.add("Seq Scan on " + relation + ": " + sql.replaceAll("\\s+", " "));
+                }
+            }
+        }
+        assertThat(failures).as("statements scanning a large table").isEmpty();
+    }
+
+    private void exerciseApplication() throws Exception {
+        long user = userId(1);
+        MonthKey month = MonthKey.now();
+        Long categoryId = jdbcTemplate.queryForObject(
+                "SELECT id FROM categories WHERE user_id = ? ORDER BY sort_order LIMIT 1", Long.class, user);
+
+        // Authentication and account lookups
+        authService.login(new LoginRequest(username(1), PASSWORD));
+        userService.getProfile(user);
+        userRepository.existsByUsername(username(1));
+        userRepository.findByEmail(username(1) + "@example.com");
+        passwordResetTokenRepository.findByToken("no-such-token");
+        userVerificationRepository.findByEmail("pending_1@example.com");
+        emailChangeRequestRepository.findByUserId(user);
+        systemSettingRepository.findBySettingKey("app_name");
+
+        // Month plan page: reads, generation of a new month, item writes
+        monthPlanService.getMonthPlan(user, month);
+        monthPlanService.generateMonthPlan(user, month.plusMonths(1));
+        PaymentItemDto item = new PaymentItemDto();
+        item.setMonthKey(month.toString());
+        item.setName("Query plan check");
+        item.setCategoryId(categoryId);
+        item.setPlannedAmount(new BigDecimal("12.50"));
+        Long itemId = monthPlanService.addManualItem(user, item);
+        item.setActualAmount(new BigDecimal("12.50"));
+        monthPlanService.updateItem(user, itemId, item);
+        monthPlanService.deleteItem(user, itemId, month);
+
+        // Dashboard, categories, templates and regular payments
+        monthPlanService.getLast6MonthsSummary(user);
+        monthPlanService.getCategoryExpenses(user, month);
+        monthPlanService.getSalary(user, month);
+        monthPlanService.saveSalary(user, month, new BigDecimal("61000"));
+        analyticsService.getTrends(user, month.minusMonths(11), month, List.of());
+        analyticsService.getTrends(user, month.minusMonths(11), month, List.of(categoryId));
+        categoryService.getCategories(user);
+        templateService.getAllTemplatesGrouped(user);
+        templateService.getTemplatesByCategory(user, categoryId);
+        regularPaymentService.getAll(user);
+        forecastService.getForecast(user, 12);
+        insightService.getInsights(user, 10);
+
+        // Export, import and the nightly insight scan
+        exportService.export(user, month.minusMonths(23), month, ExportFormat.CSV, OutputStream.nullOutputStream());
+        Path statement = Files.createTempFile("statement", ".csv");
+        Files.writeString(statement, "Date,Description,Amount\n"
+                + month.firstDay() + ",Coffee shop,-4.20\n"
+                + month.minusMonths(1).firstDay() + ",Electricity,-80.00\n");
+        statementImporter.importFile(new ImportJob(user, "statement.csv", ImportFormat.CSV), statement,
+                DateTimeFormatter.ISO_LOCAL_DATE);
+        Files.delete(statement);
+        insightJob.run();
+
+        // Archival of closed months, and reads and writes that reach an archived month
+        monthArchiveService.archiveClosedMonths();
+        monthArchiveService.rollUpArchivedMonths();
+        monthArchiveService.indexArchivedMonths();
+        Map<String, Object> archived = jdbcTemplate.queryForMap("SELECT user_id, month_num, archived_min_item_id "
+                + "FROM month_plans WHERE archived_at IS NOT NULL ORDER BY id LIMIT 1");
+        long archivedUser = ((Number) archived.get("user_id")).longValue();
+        MonthKey archivedMonth = new MonthKey(((Number) archived.get("month_num")).intValue());
+        long archivedItem = ((Number) archived.get("archived_min_item_id")).longValue();
+        monthPlanService.getLast6MonthsSummary(archivedUser);
+        monthPlanService.getCategoryExpenses(archivedUser, archivedMonth);
+        monthPlanService.getMonthPlan(archivedUser, archivedMonth);
+        monthArchiveService.findArchivedPlanOfItem(archivedUser, archivedItem);
+        PaymentItemDto archivedEdit = new PaymentItemDto();
+        archivedEdit.setName("Restored by query plan check");
+        archivedEdit.setPlannedAmount(BigDecimal.ONE);
+        monthPlanService.updateItem(archivedUser, archivedItem, archivedEdit);
+    }
+
+    /** JDBC {@code ?} placeholders as the {@code $n} parameters EXPLAIN (GENERIC_PLAN) accepts. */
+    private static String numberPlaceholders(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 16);
+        boolean quoted = false;
+        int parameter = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+            if (c == '?' && !quoted) {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    private static Set<String> seqScans(JsonNode node, Set<String> relations) {
+        if (node.isObject() && "Seq Scan".equals(node.path("Node Type").asText())) {
+            relations.add(node.path("Relation Name").asText());
+        }
+        node.forEach(child -> seqScans(child, relations));
+        return relations;
+    }
+
+    private boolean isLarge(String relation) {
+        Double rows = jdbcTemplate.queryForObject(
+                "SELECT reltuples FROM pg_class WHERE relname = ? AND relkind IN ('r', 'p')", Double.class, relation);
+        return rows != null && rows >= LARGE_TABLE_ROWS;
+    }
+}
@@ -0,0 +1,112 @@
+package com.expenze.db;
+
+import com.expenze.PostgresIntegrationTest;
+import com.expenze.util.MonthKey;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Calls the API endpoints with {@code expenze.sql.fail-on-violation=true}, so a request that
+ * exceeds its {@link SqlBudget} (or the global statement and repeat limits) fails with a 500
+ * and the test with it. Each endpoint is called once, so the statements it issues on a cache
+ * miss are the ones counted.
+ */
+class SqlBudgetIntegrationTest extends PostgresIntegrationTest {
+
+    private static final String MONTH = MonthKey.now().toString();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String token;
+    private long categoryId;
+
+    @BeforeEach
+    void login() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(post("/api/v1/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("username", username(2), "password", PASSWORD))))
+                .andReturn().getResponse();
+        assertThat(response.getStatus()).as(response.getContentAsString()).isEqualTo(200);
+        token = objectMapper.readTree(response.getContentAsString()).path("token").asText();
+        categoryId = jdbcTemplate.queryForObject(
+                "SELECT id FROM categories WHERE user_id = ? ORDER BY sort_order LIMIT 1", Long.class, userId(2));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/api/v1/month/{month}",
+            "/api/v1/summary/last6",
+            "/api/v1/category-expenses/{month}",
+            "/api/v1/salary/{month}",
+            "/api/v1/analytics/trends",
+            "/api/v1/forecast?months=12",
+            "/api/v1/insights",
+            "/api/v1/categories",
+            "/api/v1/category-templates",
+            "/api/v1/category-templates/category/{category}",
+            "/api/v1/regular"
+    })
+    void readsStayWithinBudget(String uri) throws Exception {
+        perform(get(uri.replace("{month}", MONTH).replace("{category}", Long.toString(categoryId))));
+    }
+
+    @Test
+    void itemWritesStayWithinBudget() throws Exception {
+        String next = MonthKey.now().plusMonths(1).toString();
+        perform(post("/api/v1/month/generate").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("monthKey", next))));
+
+        Map<String, Object> item = Map.of("monthKey", MONTH, "name", "Budget check", "categoryId", categoryId,
+                "plannedAmount", 25);
+        JsonNode added = objectMapper.readTree(perform(post("/api/v1/items")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(item))).getContentAsString());
+        long itemId = added.path("id").asLong();
+
+        perform(put("/api/v1/items/" + itemId).contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("monthKey", MONTH, "name", "Budget check",
+                        "categoryId", categoryId, "plannedAmount", 25, "actualAmount", 25, "isPaid", 1))));
+        perform(delete("/api/v1/items/" + itemId).param("month", MONTH));
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequestBuilder request) throws Exception {
+        double violationsBefore = violations();
+        RequestBuilder authenticated = request.header("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = mockMvc.perform(authenticated).andReturn().getResponse();
+        assertThat(response.getStatus()).as(response.getContentAsString()).isEqualTo(200);
+        // Also catches violations found after the response was committed, which only log
+        assertThat(violations()).as("expenze.sql.budget.violations").isEqualTo(violationsBefore);
+        return response;
+    }
+
+    private double violations() {
+        return meterRegistry.find("expenze.sql.budget.violations").counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+}
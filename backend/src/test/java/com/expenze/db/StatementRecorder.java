@@ -0,0 +1,85 @@
+package com.expenze.db;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the SQL text of every statement the application prepares or executes while
+ * {@link #start() recording}, on any thread, as sent to the driver.
+ *
+ * The DataSource is wrapped in a plain {@link DelegatingDataSource}, not a JDK proxy, so
+ * {@link SqlStatsDataSourcePostProcessor} still wraps it whichever of the two runs first.
+ */
+public class StatementRecorder implements BeanPostProcessor {
+
+    private static final Set<String> RECORDED = ConcurrentHashMap.newKeySet();
+    private static volatile boolean recording;
+
+    public static void start() {
+        RECORDED.clear();
+        recording = true;
+    }
+
+    /** Stops recording and returns the distinct statements seen, sorted. */
+    public static Set<String> stop() {
+        recording = false;
+        return new TreeSet<>(RECORDED);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return record(Connection.class, super.getConnection());
+                }
+
+                @Override
+                public Connection getConnection(String username, String password) throws SQLException {
+                    return record(Connection.class, super.getConnection(username, password));
+                }
+            };
+        }
+        return bean;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T record(Class<T> type, T target) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            String name = method.getName();
+            // Identity semantics, as the transaction registries compare connections
+            if (name.equals("equals") && method.getParameterCount() == 1)
+                return proxy == args[0];
+            if (name.equals("hashCode") && method.getParameterCount() == 0)
+                return System.identityHashCode(proxy);
+            if (recording && args != null && args.length > 0 && args[0] instanceof String sql
+                    && (name.startsWith("prepare") || name.startsWith("execute") || name.equals("addBatch"))) {
+                RECORDED.add(sql);
+            }
+            Object result = invoke(target, method, args);
+            return name.equals("createStatement") ? record(Statement.class, (Statement) result) : result;
+        };
+        return (T) Proxy.newProxyInstance(StatementRecorder.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.expenze.importer;
+
+import com.expenze.entity.Category;
+import com.expenze.entity.CategoryTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CategoryRulesTest {
+
+    private static final Category FOOD = category(1L, "Food");
+    private static final Category TRANSPORT = category(2L, "Transport");
+    private static final Category UTILITIES = category(3L, "Utilities");
+    private static final Category SHOPPING = category(4L, "Shopping");
+    private static final Category HOME = category(5L, "Home");
+    private static final Category HOME_LOAN = category(6L, "Home Loan");
+
+    @Test
+    void keywordsMatchWholeWordsOnly() {
+        CategoryRules rules = new CategoryRules(List.of(TRANSPORT, SHOPPING), List.of());
+
+        assertThat(rules.match("OLA CABS 1234").categoryId()).isEqualTo(2L);
+        assertThat(rules.match("MOTOROLA SERVICE CENTRE")).isNull();
+        assertThat(rules.match("BUSINESS LUNCH")).isNull();
+        assertThat(rules.match("AMAZON.IN ORDER").categoryId()).isEqualTo(4L);
+    }
+
+    @Test
+    void specificCategoriesWinOverCatchAlls() {
+        CategoryRules rules = new CategoryRules(List.of(SHOPPING, FOOD), List.of());
+
+        // "store" is a Shopping keyword, "coffee" a Food one; Food is checked first
+        assertThat(rules.match("COFFEE STORE").categoryId()).isEqualTo(1L);
+    }
+
+    @Test
+    void longerCategoryNamesWin() {
+        CategoryRules rules = new CategoryRules(List.of(HOME, HOME_LOAN), List.of());
+
+        assertThat(rules.match("HOME LOAN EMI").categoryId()).isEqualTo(6L);
+        assertThat(rules.match("HOME DECOR").categoryId()).isEqualTo(5L);
+    }
+
+    @Test
+    void subOptionsNameTheItemAndComeFirst() {
+        CategoryTemplate electricity = CategoryTemplate.builder().categoryId(3L).subOption("Electricity").build();
+        CategoryRules rules = new CategoryRules(List.of(UTILITIES, SHOPPING), List.of(electricity));
+
+        CategoryRules.Match match = rules.match("ELECTRICITY BOARD STORE PAYMENT");
+        assertThat(match.categoryId()).isEqualTo(3L);
+        assertThat(match.itemName()).isEqualTo("Electricity");
+        assertThat(rules.match("AIRTEL RECHARGE").itemName()).isNull();
+    }
+
+    @Test
+    void inactiveCategoriesAreIgnored() {
+        Category inactive = Category.builder().id(7L).name("Food").isActive(0).build();
+        CategoryRules rules = new CategoryRules(List.of(inactive), List.of());
+
+        assertThat(rules.match("SWIGGY ORDER")).isNull();
+    }
+
+    @Test
+    void duplicateNamesResolveToTheOlderCategory() {
+        Category newer = category(9L, "food");
+        CategoryRules first = new CategoryRules(List.of(newer, FOOD), List.of());
+        CategoryRules second = new CategoryRules(List.of(FOOD, newer), List.of());
+
+        assertThat(first.match("ZOMATO").categoryId()).isEqualTo(1L);
+        assertThat(second.match("ZOMATO").categoryId()).isEqualTo(1L);
+    }
+
+    @Test
+    void containsWordChecksBothEdges() {
+        assertThat(CategoryRules.containsWord("pay ola ride", "ola")).isTrue();
+        assertThat(CategoryRules.containsWord("ola", "ola")).isTrue();
+        assertThat(CategoryRules.containsWord("ola-cabs", "ola")).isTrue();
+        assertThat(CategoryRules.containsWord("olacabs", "ola")).isFalse();
+        assertThat(CategoryRules.containsWord("motorola ola", "ola")).isTrue();
+    }
+
+    private static Category category(Long id, String name) {
+        return Category.builder().id(id).name(name).build();
+    }
+}
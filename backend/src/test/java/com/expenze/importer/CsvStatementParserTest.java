@@ -0,0 +1,123 @@
+package com.expenze.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvStatementParserTest {
+
+    private final List<StatementRow> rows = new ArrayList<>();
+    private final List<String> invalid = new ArrayList<>();
+
+    @Test
+    void quotedFieldsKeepSeparatorsQuotesAndLineBreaks() throws IOException {
+        parse("""
+                Date,Description,Amount
+                2024-03-01,"Coffee, large",-4.50
+                2024-03-02,"The ""best"" pizza",-12.00
+                2024-03-03,"Rent
+                March",-900
+                """);
+
+        assertThat(rows).extracting(StatementRow::description)
+                .containsExactly("Coffee, large", "The \"best\" pizza", "Rent\nMarch");
+        assertThat(invalid).isEmpty();
+    }
+
+    @Test
+    void unclosedQuoteLosesOnlyItsOwnRecord() throws IOException {
+        StringBuilder csv = new StringBuilder("Date,Description,Amount\n");
+        csv.append("2024-03-01,\"Broken,-1.00\n");
+        for (int day = 2; day <= 20; day++) {
+            csv.append(String.format("2024-03-%02d,Shop %d,-%d.00%n", day, day, day));
+        }
+
+        parse(csv.toString());
+
+        assertThat(invalid).containsExactly("2: Quoted field is not closed");
+        assertThat(rows).hasSize(19);
+        assertThat(rows.get(0).description()).isEqualTo("Shop 2");
+        assertThat(rows.get(18).description()).isEqualTo("Shop 20");
+    }
+
+    @Test
+    void unclosedQuoteAtEndOfFileIsReported() throws IOException {
+        parse("""
+                Date,Description,Amount
+                2024-03-01,Shop,-1.00
+                2024-03-02,"Broken,-2.00
+                """);
+
+        assertThat(rows).hasSize(1);
+        assertThat(invalid).containsExactly("3: Quoted field is not closed");
+    }
+
+    @Test
+    void debitAndCreditColumnsAreSigned() throws IOException {
+        parse("""
+                Txn Date,Narration,Withdrawal Amt.,Deposit Amt.
+                2024-03-01,Groceries,"1,250.00",
+                2024-03-02,Salary,,"50,000.00"
+                """);
+
+        assertThat(rows).extracting(StatementRow::amount)
+                .containsExactly(new BigDecimal("-1250.00"), new BigDecimal("50000.00"));
+    }
+
+    @Test
+    void badRowsAreReportedWithTheirLine() throws IOException {
+        parse("""
+                Date,Description,Amount
+                yesterday,Shop,-1.00
+                2024-03-02,Shop,n/a
+                2024-03-03,Shop,-3.00
+                """);
+
+        assertThat(rows).hasSize(1);
+        assertThat(invalid).hasSize(2);
+        assertThat(invalid.get(0)).startsWith("2: ");
+        assertThat(invalid.get(1)).startsWith("3: ");
+    }
+
+    @Test
+    void headerWithoutAmountIsRejected() {
+        assertThatThrownBy(() -> parse("Date,Description\n2024-03-01,Shop\n"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void amountsParseAsBanksPrintThem() {
+        assertThat(CsvStatementParser.parseAmount("-1,234.50")).isEqualByComparingTo("-1234.50");
+        assertThat(CsvStatementParser.parseAmount("(12.50)")).isEqualByComparingTo("-12.50");
+        assertThat(CsvStatementParser.parseAmount("\u20b9 99.00 DR")).isEqualByComparingTo("-99.00");
+        assertThat(CsvStatementParser.parseAmount("99.00 cr")).isEqualByComparingTo("99.00");
+        assertThat(CsvStatementParser.parseAmount("$5")).isEqualByComparingTo("5");
+        assertThat(CsvStatementParser.parseAmount("")).isEqualByComparingTo("0");
+        assertThat(CsvStatementParser.parseAmount("-")).isEqualByComparingTo("0");
+        assertThatThrownBy(() -> CsvStatementParser.parseAmount("n/a")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void parse(String csv) throws IOException {
+        new CsvStatementParser(DateTimeFormatter.ISO_LOCAL_DATE).parse(new BufferedReader(new StringReader(csv)),
+                new StatementParser.Sink() {
+                    @Override
+                    public void row(StatementRow row) {
+                        rows.add(row);
+                    }
+
+                    @Override
+                    public void invalid(long line, String reason) {
+                        invalid.add(line + ": " + reason);
+                    }
+                });
+    }
+}
@@ -0,0 +1,57 @@
+package com.expenze.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RowHashesTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @Test
+    void sameStatementGivesSameHashes() {
+        RowHashes first = new RowHashes();
+        RowHashes second = new RowHashes();
+
+        assertThat(second.next(DAY, new BigDecimal("4.50"), "Coffee"))
+                .isEqualTo(first.next(DAY, new BigDecimal("4.50"), "Coffee"));
+    }
+
+    @Test
+    void identicalRowsAreToldApartByOccurrence() {
+        RowHashes hashes = new RowHashes();
+
+        String once = hashes.next(DAY, new BigDecimal("4.50"), "Coffee");
+        String twice = hashes.next(DAY, new BigDecimal("4.50"), "Coffee");
+
+        assertThat(twice).isNotEqualTo(once);
+    }
+
+    @Test
+    void occurrencesCountOverTheWholeFile() {
+        // Rows of one day split by another day still count 1, 2 in both files
+        RowHashes grouped = new RowHashes();
+        String a1 = grouped.next(DAY, BigDecimal.TEN, "Shop");
+        String a2 = grouped.next(DAY, BigDecimal.TEN, "Shop");
+
+        RowHashes interleaved = new RowHashes();
+        String b1 = interleaved.next(DAY, BigDecimal.TEN, "Shop");
+        interleaved.next(DAY.plusDays(1), BigDecimal.TEN, "Shop");
+        String b2 = interleaved.next(DAY, BigDecimal.TEN, "Shop");
+
+        assertThat(b1).isEqualTo(a1);
+        assertThat(b2).isEqualTo(a2);
+    }
+
+    @Test
+    void descriptionAndAmountAreNormalized() {
+        RowHashes first = new RowHashes();
+        RowHashes second = new RowHashes();
+
+        assertThat(second.next(DAY, new BigDecimal("4.5"), "  COFFEE   shop "))
+                .isEqualTo(first.next(DAY, new BigDecimal("4.50"), "coffee shop"));
+    }
+}
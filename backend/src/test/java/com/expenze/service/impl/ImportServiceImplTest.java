@@ -0,0 +1,74 @@
+package com.expenze.service.impl;
+
+import com.expenze.dto.ImportProgressDto;
+import com.expenze.exception.BadRequestException;
+import com.expenze.importer.StatementImporter;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ImportServiceImplTest {
+
+    private static final MockMultipartFile FILE = new MockMultipartFile("file", "statement.csv", "text/csv",
+            "Date,Description,Amount\n2024-03-01,Shop,-1.00\n".getBytes());
+
+    @Test
+    void onlyOneOfConcurrentUploadsStarts() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        StatementImporter importer = mock(StatementImporter.class);
+        doAnswer(invocation -> release.await(10, TimeUnit.SECONDS)).when(importer)
+                .importFile(any(), any(), any());
+        ImportServiceImpl service = new ImportServiceImpl(importer, new SimpleAsyncTaskExecutor());
+
+        int uploads = 8;
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService clients = Executors.newFixedThreadPool(uploads);
+        List<Future<Boolean>> started = new ArrayList<>();
+        for (int i = 0; i < uploads; i++) {
+            started.add(clients.submit(() -> {
+                go.await();
+                try {
+                    service.start(1L, FILE, "csv", "yyyy-MM-dd");
+                    return true;
+                } catch (BadRequestException e) {
+                    return false;
+                }
+            }));
+        }
+        go.countDown();
+        int accepted = 0;
+        for (Future<Boolean> result : started) {
+            accepted += result.get(10, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        release.countDown();
+        clients.shutdown();
+
+        assertThat(accepted).isEqualTo(1);
+    }
+
+    @Test
+    void nextImportStartsOnceTheFirstHasFinished() throws Exception {
+        ImportServiceImpl service = new ImportServiceImpl(mock(StatementImporter.class),
+                new SimpleAsyncTaskExecutor());
+
+        ImportProgressDto first = service.start(1L, FILE, "csv", "yyyy-MM-dd");
+        for (int i = 0; i < 100 && "RUNNING".equals(service.getProgress(1L, first.getId()).getStatus()); i++) {
+            Thread.sleep(20);
+        }
+
+        assertThat(service.start(1L, FILE, "csv", "yyyy-MM-dd").getId()).isNotEqualTo(first.getId());
+    }
+}
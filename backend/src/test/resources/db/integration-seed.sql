@@ -0,0 +1,54 @@
+-- Dataset for the Postgres integration tests: 1000 users with two years of months each,
+-- about 400k payment items, enough rows that the planner prefers indexes where it should.
+-- Months run from 23 months ago to the current month; the next month is left ungenerated.
+
+INSERT INTO users (username, password, email, role, is_verified, default_budget)
+SELECT 'it_user_' || u, '-', 'it_user_' || u || '@example.com', 'user', 1, 50000
+FROM generate_series(1, 1000) u;
+
+INSERT INTO categories (user_id, name, sort_order, is_active, icon)
+SELECT u.id, 'Category ' || c, c, 1, 'tag'
+FROM users u CROSS JOIN generate_series(1, 8) c
+WHERE u.username LIKE 'it\_user\_%';
+
+INSERT INTO category_templates (user_id, category_id, sub_option, sort_order, is_active)
+SELECT c.user_id, c.id, c.name || ' option ' || t, t, 1
+FROM categories c CROSS JOIN generate_series(1, 3) t;
+
+INSERT INTO regular_payments (user_id, category_id, name, frequency, is_active, start_date, default_planned_amount)
+SELECT c.user_id, c.id, 'Regular ' || c.name, 'MONTHLY', 1, DATE '2020-01-01', 100 * c.sort_order
+FROM categories c
+WHERE c.sort_order <= 4;
+
+INSERT INTO month_plans (user_id, month_num)
+SELECT u.id, to_char(date_trunc('month', current_date) - make_interval(months => m), 'YYYYMM')::int
+FROM users u CROSS JOIN generate_series(0, 23) m
+WHERE u.username LIKE 'it\_user\_%';
+
+INSERT INTO payment_items (user_id, month_plan_id, month_num, category_id, name, planned_amount, actual_amount,
+                           is_paid, priority)
+SELECT mp.user_id, mp.id, mp.month_num, c.id, c.name || ' item ' || i, 50 * i + 10 * c.sort_order,
+       CASE WHEN i = 1 THEN 0 ELSE 50 * i + (mp.month_num % 7) * 5 END,
+       CASE WHEN i = 1 THEN 0 ELSE 1 END, 'MEDIUM'
+FROM month_plans mp
+JOIN categories c ON c.user_id = mp.user_id
+CROSS JOIN generate_series(1, 2) i;
+
+INSERT INTO salaries (user_id, amount, month_num)
+SELECT user_id, 60000, month_num FROM month_plans;
+
+INSERT INTO password_reset_tokens (user_id, token, expiry_date)
+SELECT id, md5(username), CURRENT_TIMESTAMP + INTERVAL '1 hour'
+FROM users
+WHERE username LIKE 'it\_user\_%';
+
+INSERT INTO user_verifications (email, username, password, otp_code, expires_at)
+SELECT 'pending_' || v || '@example.com', 'pending_' || v, '-', '123456', CURRENT_TIMESTAMP + INTERVAL '10 minutes'
+FROM generate_series(1, 1000) v;
+
+INSERT INTO email_change_requests (user_id, new_email, otp, expires_at)
+SELECT id, 'new_' || email, '654321', CURRENT_TIMESTAMP + INTERVAL '10 minutes'
+FROM users
+WHERE username LIKE 'it\_user\_%';
+
+ANALYZE;
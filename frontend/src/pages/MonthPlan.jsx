@@ -116,7 +116,8 @@ export default function MonthPlan() {
                     'Content-Type': 'application/json',
                     'Authorization': `Bearer ${token}`
                 },
-                body: JSON.stringify(item)
+                // The month lets the backend go straight to the item's partition
+                body: JSON.stringify({ ...item, monthKey })
             });
         } catch (error) {
             console.error("Failed to save item:", error);
@@ -138,7 +139,7 @@ export default function MonthPlan() {
     const deleteItem = async (id) => {
         if (!confirm('Delete item?')) return;
         setItems(items.filter(i => i.id !== id));
-        await fetch(getApiUrl(`/api/v1/items/${id}`), {
+        await fetch(getApiUrl(`/api/v1/items/${id}?month=${monthKey}`), {
             method: 'DELETE',
             headers: { 'Authorization': `Bearer ${token}` }
         });